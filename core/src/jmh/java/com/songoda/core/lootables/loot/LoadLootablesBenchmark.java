@@ -0,0 +1,107 @@
+package com.songoda.core.lootables.loot;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import com.cryptomorin.xseries.XMaterial;
+import com.songoda.core.lootables.Lootables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loads a directory of generated lootable files, either parsing every file with Gson
+ * or reading them from an up to date snapshot.
+ * Run with {@code -prof gc} to see the allocation rate per load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LoadLootablesBenchmark {
+    @Param({"100", "1000"})
+    public int fileCount;
+
+    @Param({"false", "true"})
+    public boolean snapshot;
+
+    private Path directory;
+    private LootManager lootManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        MockBukkit.mock();
+
+        directory = Files.createTempDirectory("lootables");
+        LootManager writer = new Lootables(directory.toString()).getLootManager();
+
+        for (int i = 0; i < fileCount; i++) {
+            writer.addLootable(createLootable("MOB_" + i));
+        }
+
+        writer.saveLootables(false);
+
+        lootManager = new Lootables(directory.toString()).getLootManager();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepare() throws IOException {
+        Path snapshotFile = directory.resolve(LootSnapshot.FILE_NAME);
+
+        if (snapshot) {
+            // The first load writes the snapshot, later ones read it
+            if (!Files.exists(snapshotFile)) {
+                lootManager.loadLootables();
+            }
+        } else {
+            Files.deleteIfExists(snapshotFile);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+
+        MockBukkit.unmock();
+    }
+
+    @Benchmark
+    public Map<String, Lootable> loadLootables() {
+        lootManager.loadLootables();
+        return lootManager.getRegisteredLootables();
+    }
+
+    private static Lootable createLootable(String key) {
+        Loot rare = new LootBuilder().setMaterial(XMaterial.DIAMOND).setChance(1).build();
+        Loot uncommon = new LootBuilder().setMaterial(XMaterial.GOLD_INGOT).setChance(10).setMax(2)
+                .addChildLoot(rare).build();
+
+        return new Lootable(key,
+                new LootBuilder().setMaterial(XMaterial.ROTTEN_FLESH).setMin(0).setMax(2).setLootingIncrease(1).build(),
+                new LootBuilder().setMaterial(XMaterial.BEEF).setBurnedMaterial(XMaterial.COOKED_BEEF).setMax(3).build(),
+                new LootBuilder().setMaterial(XMaterial.IRON_SWORD).setName("&7Rusty Sword").addLore("&8Found on " + key)
+                        .setChance(5).setDamageMin(10).setDamageMax(200).build(),
+                new LootBuilder().setMaterial(XMaterial.EMERALD).setChance(25).addChildLoot(uncommon).build());
+    }
+}
@@ -0,0 +1,85 @@
+package com.songoda.core.lootables.loot;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.WorldMock;
+import org.bukkit.Material;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges the drops of a stacked entity's death into its death event.
+ * Only items and xp are dropped, commands would need a running plugin to be dispatched.
+ * Run with {@code -prof gc} to see the allocation rate per death.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessStackedDropBenchmark {
+    private static final Material[] MATERIALS = {
+            Material.ROTTEN_FLESH, Material.IRON_INGOT, Material.CARROT, Material.POTATO,
+            Material.FEATHER, Material.BONE, Material.STRING, Material.DIAMOND_SWORD
+    };
+
+    @Param({"10", "100", "1000", "10000"})
+    public int dropCount;
+
+    private LivingEntity entity;
+    private List<Drop> drops;
+    private EntityDeathEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ServerMock server = MockBukkit.mock();
+        WorldMock world = server.addSimpleWorld("world");
+
+        entity = (LivingEntity) world.spawnEntity(world.getSpawnLocation(), EntityType.ZOMBIE);
+
+        drops = new ArrayList<>(dropCount);
+        for (int i = 0; i < dropCount; i++) {
+            if (i % 10 == 9) {
+                drops.add(new Drop(1 + i % 5));
+            } else {
+                drops.add(new Drop(new ItemStack(MATERIALS[i % MATERIALS.length], 1 + i % 3)));
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createEvent() {
+        event = new EntityDeathEvent(entity, new ArrayList<>(), 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Benchmark
+    public EntityDeathEvent processStackedDrop() {
+        DropUtils.processStackedDrop(entity, drops, event);
+        return event;
+    }
+}
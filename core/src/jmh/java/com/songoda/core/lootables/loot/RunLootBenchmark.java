@@ -0,0 +1,193 @@
+package com.songoda.core.lootables.loot;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import com.cryptomorin.xseries.XMaterial;
+import com.songoda.core.lootables.Lootables;
+import org.bukkit.entity.EntityType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolls lootables of different shapes through {@link LootManager}.
+ * Run with {@code -prof gc} to see the allocation rate per roll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunLootBenchmark {
+    @Param({"FLAT", "DEEP", "ENCHANT_OVERRIDES", "BURNED"})
+    public String table;
+
+    @Param({"1", "64"})
+    public int stackSize;
+
+    private LootManager lootManager;
+    private Lootable lootable;
+    private Map<String, Integer> weaponEnchantments;
+    private boolean burning;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        MockBukkit.mock();
+
+        lootManager = new Lootables(Files.createTempDirectory("lootables").toString()).getLootManager();
+        weaponEnchantments = Collections.emptyMap();
+
+        switch (table) {
+            case "FLAT":
+                lootable = flat();
+                break;
+            case "DEEP":
+                lootable = deep();
+                break;
+            case "ENCHANT_OVERRIDES":
+                lootable = enchantOverrides();
+                break;
+            case "BURNED":
+                lootable = burned();
+                burning = true;
+                break;
+            default:
+                throw new IllegalArgumentException(table);
+        }
+
+        lootManager.addLootable(lootable);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Benchmark
+    public void runLootIntoSink(Blackhole blackhole) {
+        try (LootContext context = createContext()) {
+            DropSink sink = new BlackholeSink(blackhole);
+
+            if (stackSize == 1) {
+                lootManager.runLoot(lootable, context, sink);
+            } else {
+                lootManager.runLootBatch(lootable, stackSize, context, sink);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Drop> runLootIntoDrops() {
+        try (LootContext context = createContext()) {
+            return stackSize == 1
+                    ? lootManager.runLoot(lootable, context)
+                    : lootManager.runLootBatch(lootable, stackSize, context);
+        }
+    }
+
+    private LootContext createContext() {
+        return LootContext.acquire()
+                .setLooter(EntityType.ZOMBIE)
+                .setBurning(burning)
+                .setLooting(2)
+                .setWeaponEnchantments(weaponEnchantments);
+    }
+
+    private static Lootable flat() {
+        return new Lootable("ZOMBIE",
+                new LootBuilder().setMaterial(XMaterial.ROTTEN_FLESH).setMin(0).setMax(2).build(),
+                new LootBuilder().setMaterial(XMaterial.IRON_INGOT).setChance(2.5).build(),
+                new LootBuilder().setMaterial(XMaterial.CARROT).setChance(2.5).build(),
+                new LootBuilder().setMaterial(XMaterial.POTATO).setChance(2.5).build(),
+                new LootBuilder().setMaterial(XMaterial.FEATHER).setChance(50).setMax(3).build());
+    }
+
+    private static Lootable deep() {
+        Loot leaf = new LootBuilder().setMaterial(XMaterial.DIAMOND).setChance(10).build();
+
+        for (int depth = 0; depth < 4; depth++) {
+            Loot[] children = new Loot[4];
+
+            for (int i = 0; i < children.length; i++) {
+                children[i] = i == 0 ? leaf : new LootBuilder().setMaterial(XMaterial.GOLD_NUGGET).setChance(25).setMax(4).build();
+            }
+
+            leaf = new LootBuilder().setMaterial(XMaterial.EMERALD).setChance(75).addChildLoot(children).setChildDropCount(2).build();
+        }
+
+        return new Lootable("ZOMBIE", leaf);
+    }
+
+    private Lootable enchantOverrides() {
+        Map<String, Double> overrides = new HashMap<>();
+        overrides.put("LOOT_BONUS_MOBS:3", 40.0);
+        overrides.put("DAMAGE_ALL:5", 25.0);
+        overrides.put("FIRE_ASPECT:2", 15.0);
+
+        Lootable lootable = new Lootable("ZOMBIE");
+
+        for (int i = 0; i < 5; i++) {
+            Loot loot = new LootBuilder().setMaterial(XMaterial.BLAZE_ROD).setChance(5).build();
+            loot.setEnchantChances(overrides);
+            lootable.registerLoot(loot);
+        }
+
+        weaponEnchantments = new HashMap<>();
+        weaponEnchantments.put("DAMAGE_ALL", 5);
+        weaponEnchantments.put("LOOT_BONUS_MOBS", 3);
+        weaponEnchantments.put("DURABILITY", 3);
+        weaponEnchantments.put("MENDING", 1);
+
+        return lootable;
+    }
+
+    private static Lootable burned() {
+        return new Lootable("ZOMBIE",
+                new LootBuilder().setMaterial(XMaterial.BEEF).setBurnedMaterial(XMaterial.COOKED_BEEF).setMin(1).setMax(3).build(),
+                new LootBuilder().setMaterial(XMaterial.PORKCHOP).setBurnedMaterial(XMaterial.COOKED_PORKCHOP).setMin(1).setMax(3).build(),
+                new LootBuilder().setMaterial(XMaterial.LEATHER).setMax(2).build());
+    }
+
+    private static final class BlackholeSink implements DropSink {
+        private final Blackhole blackhole;
+
+        private BlackholeSink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void item(CompiledLoot loot, LootContext context, long amount) {
+            blackhole.consume(loot.createItem(context.isBurning(), context.getRandom()));
+            blackhole.consume(amount);
+        }
+
+        @Override
+        public void command(String command, long amount) {
+            blackhole.consume(command);
+            blackhole.consume(amount);
+        }
+
+        @Override
+        public void xp(int xp, long amount) {
+            blackhole.consume(xp * amount);
+        }
+    }
+}
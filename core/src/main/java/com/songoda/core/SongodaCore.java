@@ -1,6 +1,7 @@
 package com.songoda.core;
 
 import co.aikar.commands.PaperCommandManager;
+import com.songoda.core.builtin.LootCommand;
 import com.songoda.core.plugins.PluginInfo;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -24,6 +25,7 @@ public class SongodaCore extends JavaPlugin {
         instance = this;
 
         this.commandManager = new PaperCommandManager(this);
+        this.commandManager.registerCommand(new LootCommand(this));
     }
 
     public void registerPlugin(SongodaPlugin plugin, int pluginId, String icon) {
@@ -0,0 +1,174 @@
+package com.songoda.core.builtin;
+
+import co.aikar.commands.BaseCommand;
+import co.aikar.commands.annotation.CommandAlias;
+import co.aikar.commands.annotation.CommandPermission;
+import co.aikar.commands.annotation.Default;
+import co.aikar.commands.annotation.Optional;
+import co.aikar.commands.annotation.Subcommand;
+import co.aikar.commands.annotation.Syntax;
+import com.songoda.core.SongodaCore;
+import com.songoda.core.lootables.Lootables;
+import com.songoda.core.lootables.loot.LootContext;
+import com.songoda.core.lootables.loot.LootSimulator;
+import com.songoda.core.lootables.loot.LootStatistics;
+import com.songoda.core.lootables.loot.Lootable;
+import com.songoda.core.lootables.loot.SimulationReport;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.EntityType;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loot tooling for server admins, working across the lootables of every plugin.
+ */
+@CommandAlias("songoda")
+@CommandPermission("songoda.admin")
+public class LootCommand extends BaseCommand {
+
+    private final SongodaCore core;
+    private final DecimalFormat format = new DecimalFormat("##.##");
+
+    public LootCommand(SongodaCore core) {
+        this.core = core;
+    }
+
+    @Subcommand("loot simulate")
+    @Syntax("<lootable> [kills] [looting] [seed] [enchantment:level,...]")
+    public void onLootSimulate(CommandSender sender, String key, @Default("100000") int kills, @Default("0") int looting,
+                               @Optional Long seed, @Optional String enchants) {
+        Lootable lootable = null;
+
+        for (Lootables lootables : Lootables.getInstances()) {
+            for (Lootable registered : lootables.getLootManager().getRegisteredLootables().values()) {
+                if (registered.getKey().equalsIgnoreCase(key)) {
+                    lootable = registered;
+                }
+            }
+        }
+
+        if (lootable == null) {
+            sender.sendMessage("No lootable found for " + key + ".");
+            return;
+        }
+
+        if (kills <= 0) {
+            sender.sendMessage("The amount of kills must be positive.");
+            return;
+        }
+
+        Map<String, Integer> weaponEnchantments = new HashMap<>();
+
+        if (enchants != null) {
+            for (String enchant : enchants.split(",")) {
+                String[] split = enchant.split(":");
+                Enchantment enchantment = Enchantment.getByName(split[0].trim().toUpperCase());
+
+                if (enchantment == null || split.length != 2 || !split[1].trim().matches("\\d+")) {
+                    sender.sendMessage("Invalid weapon enchantment " + enchant + ", expected enchantment:level.");
+                    return;
+                }
+
+                weaponEnchantments.put(enchantment.getName(), Integer.parseInt(split[1].trim()));
+            }
+        }
+
+        Lootable simulated = lootable;
+        long usedSeed = seed == null ? System.nanoTime() : seed;
+        LootContext context = new LootContext()
+                .setLooter(getEntityType(simulated.getKey()))
+                .setLooting(looting)
+                .setWeaponEnchantments(weaponEnchantments);
+
+        sender.sendMessage("Simulating " + kills + " kills of " + simulated.getKey() + "...");
+
+        Bukkit.getScheduler().runTaskAsynchronously(core, () -> {
+            SimulationReport report = new LootSimulator().simulate(simulated, kills, context, usedSeed);
+            Bukkit.getScheduler().runTask(core, () -> sendReport(sender, simulated, report));
+        });
+    }
+
+    @Subcommand("loot profile")
+    @Syntax("[top]")
+    public void onLootProfile(CommandSender sender, @Default("10") int top) {
+        List<Lootable> profiled = new ArrayList<>();
+
+        for (Lootables lootables : Lootables.getInstances()) {
+            for (Lootable lootable : lootables.getLootManager().getRegisteredLootables().values()) {
+                if (lootable.getStatistics().getInvocations() != 0) {
+                    profiled.add(lootable);
+                }
+            }
+        }
+
+        if (profiled.isEmpty()) {
+            sender.sendMessage("No loot was rolled yet" + (LootStatistics.isEnabled() ? "." : ", profiling is disabled."));
+            return;
+        }
+
+        profiled.sort(Comparator.comparingLong((Lootable lootable) -> lootable.getStatistics().getNanos()).reversed());
+
+        sender.sendMessage("");
+        sender.sendMessage("Most expensive lootables:");
+
+        for (Lootable lootable : profiled.subList(0, Math.min(Math.max(1, top), profiled.size()))) {
+            LootStatistics statistics = lootable.getStatistics();
+            long kills = Math.max(1, statistics.getKills());
+
+            sender.sendMessage(lootable.getKey() + ": " + format.format(statistics.getNanos() / 1_000_000.0) + "ms total, "
+                    + statistics.getInvocations() + " calls, " + format.format(statistics.getAverageNanos() / 1_000.0) + "µs avg, "
+                    + format.format(statistics.getRandomDraws() / (double) kills) + " draws, "
+                    + format.format(statistics.getItems() / (double) kills) + " items and "
+                    + format.format(statistics.getCommands() / (double) kills) + " commands per kill");
+        }
+    }
+
+    @Subcommand("loot profile reset")
+    public void onLootProfileReset(CommandSender sender) {
+        for (Lootables lootables : Lootables.getInstances()) {
+            for (Lootable lootable : lootables.getLootManager().getRegisteredLootables().values()) {
+                lootable.getStatistics().reset();
+            }
+        }
+
+        sender.sendMessage("Loot statistics reset.");
+    }
+
+    private static EntityType getEntityType(String key) {
+        try {
+            return EntityType.valueOf(key.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private void sendReport(CommandSender sender, Lootable lootable, SimulationReport report) {
+        sender.sendMessage("");
+        sender.sendMessage("Loot simulation of " + lootable.getKey() + " (" + report.getKills() + " kills, seed " + report.getSeed()
+                + ", " + format.format(report.getDurationNanos() / 1_000_000.0) + "ms)");
+        sender.sendMessage("");
+        sender.sendMessage("Items:");
+
+        for (SimulationReport.ItemStatistics item : report.getItems().values()) {
+            sender.sendMessage(item.getMaterial() + ": " + format.format(item.getDropRate() * 100) + "% of kills, "
+                    + format.format(item.getMeanPerKill()) + " per kill, p50 " + item.getPercentile(50)
+                    + ", p90 " + item.getPercentile(90) + ", p99 " + item.getPercentile(99) + ", max " + item.getMaxAmount());
+        }
+
+        sender.sendMessage("");
+        sender.sendMessage("Xp per kill: " + format.format(report.getXpPerKill()));
+
+        if (!report.getCommandsPerKill().isEmpty()) {
+            sender.sendMessage("Commands per kill:");
+
+            report.getCommandsPerKill().forEach((command, frequency) -> sender.sendMessage(command + ": " + format.format(frequency)));
+        }
+    }
+}
@@ -12,6 +12,8 @@ public enum ClassMapping {
     BLOCK_POSITION("core", "BlockPosition"),
     CHAT_MESSAGE_TYPE("network.chat", "ChatMessageType"),
     CHUNK("world.level.chunk", "Chunk"),
+    CONTAINER("world.inventory", "Container"),
+    CONTAINERS("world.inventory", "Containers"), // Added in 1.14
     CLIENTBOUND_INITIALIZE_BORDER_PACKET("network.protocol.game", "ClientboundInitializeBorderPacket"), // Added in 1.17
     ENCHANTMENT_MANAGER("world.item.enchantment", "EnchantmentManager"),
     ENTITY("world.entity", "Entity"),
@@ -31,6 +33,7 @@ public enum ClassMapping {
     PERSISTENT_ENTITY_SECTION_MANAGER("world.level.entity", "PersistentEntitySectionManager"),
     PACKET("network.protocol", "Packet"),
     PACKET_PLAY_OUT_CHAT("network.protocol.game", "PacketPlayOutChat"),
+    PACKET_PLAY_OUT_OPEN_WINDOW("network.protocol.game", "PacketPlayOutOpenWindow"),
     /* 1.19 Packet */ CLIENTBOUND_SYSTEM_CHAT("network.protocol.game", "ClientboundSystemChatPacket"),
     PACKET_PLAY_OUT_WORLD_BORDER("PacketPlayOutWorldBorder"), // Removed in 1.17
     PLAYER_CONNECTION("server.network", "PlayerConnection"),
@@ -40,8 +43,10 @@ public enum ClassMapping {
 
     CRAFT_BLOCK("block", "CraftBlock"),
     CRAFT_BLOCK_DATA("block.data", "CraftBlockData"),
+    CRAFT_CHAT_MESSAGE("util", "CraftChatMessage"),
     CRAFT_CHUNK("CraftChunk"),
     CRAFT_ENTITY("entity", "CraftEntity"),
+    CRAFT_INVENTORY_VIEW("inventory", "CraftInventoryView"),
     CRAFT_ITEM_STACK("inventory", "CraftItemStack"),
     CRAFT_MAGIC_NUMBERS("util", "CraftMagicNumbers"),
     CRAFT_PLAYER("entity", "CraftPlayer"),
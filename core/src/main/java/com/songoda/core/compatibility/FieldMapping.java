@@ -0,0 +1,50 @@
+package com.songoda.core.compatibility;
+
+import java.lang.reflect.Field;
+
+public enum FieldMapping {
+    ENTITY_PLAYER__CONNECTION("playerConnection", "b", "b", "b", "b"), /* #connection */
+
+    CONTAINER__CONTAINER_ID("windowId", "j", "j", "j", "j"); /* #containerId */
+
+    private final String saneFallback;
+    private final String _1_17;
+    private final String _1_18;
+    private final String _1_18_2;
+    private final String _1_19;
+
+    FieldMapping(String saneFallback, String _1_17, String _1_18, String _1_18_2, String _1_19) {
+        this.saneFallback = saneFallback;
+
+        this._1_17 = _1_17;
+        this._1_18 = _1_18;
+        this._1_18_2 = _1_18_2;
+        this._1_19 = _1_19;
+    }
+
+    public Field getField(Class<?> clazz) {
+        String fieldName = saneFallback;
+        switch (ServerVersion.getServerVersion()) {
+            case V1_17:
+                fieldName = _1_17;
+                break;
+            case V1_18:
+                fieldName = ServerVersion.getVersionReleaseNumber().equals("2") ? _1_18_2 : _1_18;
+                break;
+            case V1_19:
+                fieldName = _1_19;
+                break;
+        }
+
+        try {
+            Field field = clazz.getField(fieldName);
+            field.setAccessible(true);
+
+            return field;
+        } catch (NoSuchFieldException ex) {
+            ex.printStackTrace();
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.songoda.core.compatibility;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Changes the title of an open inventory by re-sending only the open-window packet
+ * for the container the player is already looking at, followed by an item sync.
+ * <p>
+ * Obfuscated members are resolved through {@link FieldMapping} and {@link MethodMapping} for the running server version.
+ * Callers should fall back to reopening the inventory when {@link #isSupported()} is false or an update fails.
+ */
+public class InventoryTitleUpdater {
+    private static boolean supported;
+
+    private static Method craftPlayer_getHandle, craftInventoryView_getHandle, craftChatMessage_fromString,
+            container_getType, playerConnection_sendPacket;
+    private static Field entityPlayer_connection, container_containerId;
+    private static Constructor<?> packetOpenWindow_init;
+
+    static {
+        // The menu type registry (Containers) exists since 1.14, older versions used string window types.
+        if (ServerVersion.isServerVersionAtLeast(ServerVersion.V1_14)) {
+            try {
+                Class<?> clazzContainer = ClassMapping.CONTAINER.getClazz();
+
+                craftPlayer_getHandle = MethodMapping.CB_GENERIC__GET_HANDLE.getMethod(ClassMapping.CRAFT_PLAYER.getClazz());
+                craftInventoryView_getHandle = MethodMapping.CB_GENERIC__GET_HANDLE.getMethod(ClassMapping.CRAFT_INVENTORY_VIEW.getClazz());
+                craftChatMessage_fromString = MethodMapping.CB_CHAT_MESSAGE__FROM_STRING.getMethod(ClassMapping.CRAFT_CHAT_MESSAGE.getClazz());
+
+                entityPlayer_connection = FieldMapping.ENTITY_PLAYER__CONNECTION.getField(ClassMapping.ENTITY_PLAYER.getClazz());
+                container_containerId = FieldMapping.CONTAINER__CONTAINER_ID.getField(clazzContainer);
+                container_getType = MethodMapping.CONTAINER__GET_TYPE.getMethod(clazzContainer);
+
+                playerConnection_sendPacket = MethodMapping.PLAYER_CONNECTION__SEND_PACKET.getMethod(ClassMapping.PLAYER_CONNECTION.getClazz());
+                packetOpenWindow_init = ClassMapping.PACKET_PLAY_OUT_OPEN_WINDOW.getClazz()
+                        .getConstructor(int.class, ClassMapping.CONTAINERS.getClazz(), ClassMapping.I_CHAT_BASE_COMPONENT.getClazz());
+
+                supported = craftPlayer_getHandle != null && craftInventoryView_getHandle != null && craftChatMessage_fromString != null
+                        && entityPlayer_connection != null && container_containerId != null && playerConnection_sendPacket != null
+                        && container_getType != null && container_getType.getReturnType() == ClassMapping.CONTAINERS.getClazz();
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                supported = false;
+            }
+        }
+    }
+
+    /**
+     * @return true if titles can be changed without reopening the inventory on this server
+     */
+    public static boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * Changes the title the player sees for the given top inventory, keeping the same container open.
+     *
+     * @param player    the viewer
+     * @param inventory the top inventory the player should currently be viewing
+     * @param title     the new title
+     *
+     * @return true if the title got updated, false if the caller should reopen the inventory instead
+     */
+    public static boolean updateTitle(Player player, Inventory inventory, String title) {
+        if (!supported || player.getOpenInventory().getTopInventory() != inventory) {
+            return false;
+        }
+
+        try {
+            Object container = craftInventoryView_getHandle.invoke(player.getOpenInventory());
+            if (container == null) {
+                return false;
+            }
+
+            // The player inventory container has no menu type and can't be reopened by the client, getType throws for it.
+            Object menuType = container_getType.invoke(container);
+            if (menuType == null) {
+                return false;
+            }
+
+            Object component = ((Object[]) craftChatMessage_fromString.invoke(null, title))[0];
+            Object packet = packetOpenWindow_init.newInstance(container_containerId.getInt(container), menuType, component);
+
+            Object handle = craftPlayer_getHandle.invoke(player);
+            playerConnection_sendPacket.invoke(entityPlayer_connection.get(handle), packet);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return false;
+        }
+
+        // The client clears the window when it's opened again, send the contents back.
+        player.updateInventory();
+        return true;
+    }
+}
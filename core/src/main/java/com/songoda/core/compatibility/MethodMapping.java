@@ -21,6 +21,8 @@ public enum MethodMapping {
 
     CB_GENERIC__GET_HANDLE("getHandle"),
 
+    CB_CHAT_MESSAGE__FROM_STRING("fromString", String.class),
+
     CB_BLOCK__GET_NMS("getNMSBlock", "getNMS", "getNMS", "getNMS"),
     CB_BLOCK__GET_POSITION("getPosition"),
 
@@ -35,6 +37,10 @@ public enum MethodMapping {
 
     BLOCK__GET_BLOCK_DATA("getBlockData", "n", "n", "m"),
 
+    CONTAINER__GET_TYPE("getType", "getType", "a", "a", "a", "a"), /* #getType */
+
+    PLAYER_CONNECTION__SEND_PACKET("sendPacket", "sendPacket", "sendPacket", "a", "a", "a", ClassMapping.PACKET.getClazz()), /* #send */
+
     CHUNK__SET_BLOCK_STATE("setType", "setBlockState", "a", "a", ClassMapping.BLOCK_POSITION.getClazz(), ClassMapping.I_BLOCK_DATA.getClazz(), boolean.class, boolean.class),
 
     ITEM_STACK__SAVE("save", "b", "b", "b", ClassMapping.NBT_TAG_COMPOUND.getClazz()),
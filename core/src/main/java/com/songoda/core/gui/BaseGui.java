@@ -23,6 +23,7 @@
  */
 package com.songoda.core.gui;
 
+import com.songoda.core.compatibility.InventoryTitleUpdater;
 import com.songoda.core.gui.components.GuiAction;
 import com.songoda.core.gui.components.GuiType;
 import com.songoda.core.gui.components.InteractionModifier;
@@ -38,6 +39,7 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
@@ -48,6 +50,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 
 /**
@@ -70,6 +73,10 @@ public abstract class BaseGui implements InventoryHolder {
 
     // Main inventory.
     private Inventory inventory;
+    // Holder of the main inventory when it was taken from the InventoryPool.
+    private InventoryPool.PooledHolder pooledHolder;
+    // Whether the viewers were sent a newer title than the one the inventory was created with.
+    private boolean staleTitle;
 
     // title
     private String title;
@@ -78,6 +85,8 @@ public abstract class BaseGui implements InventoryHolder {
     private final GuiFiller filler = new GuiFiller(this);
 
     private int rows = 1;
+    // Whether the inventory is sized by rows rather than by the gui type.
+    private boolean sizedByRows;
 
     // Gui type, defaults to chest.
     private GuiType guiType = GuiType.CHEST;
@@ -107,6 +116,9 @@ public abstract class BaseGui implements InventoryHolder {
     // Whether the GUI is updating.
     private boolean updating;
 
+    // Whether the GUI is waiting to be repainted and resynced by the GuiRenderQueue.
+    private boolean dirty;
+
     // Whether should run the actions from the close and open methods.
     private boolean runCloseAction = true;
     private boolean runOpenAction = true;
@@ -123,10 +135,11 @@ public abstract class BaseGui implements InventoryHolder {
         int finalRows = rows;
         if (!(rows >= 1 && rows <= 6)) finalRows = 1;
         this.rows = finalRows;
+        this.sizedByRows = true;
         this.interactionModifiers = safeCopyOf(interactionModifiers);
         this.title = title;
         int inventorySize = this.rows * 9;
-        this.inventory = Bukkit.createInventory(this, inventorySize, title);
+        this.inventory = createInventory(title);
         this.slotActions = new LinkedHashMap<>(inventorySize);
         this.guiItems = new LinkedHashMap<>(inventorySize);
     }
@@ -144,7 +157,7 @@ public abstract class BaseGui implements InventoryHolder {
         this.interactionModifiers = safeCopyOf(interactionModifiers);
         this.title = title;
         int inventorySize = guiType.getLimit();
-        this.inventory = Bukkit.createInventory(this, guiType.getInventoryType(), title);
+        this.inventory = createInventory(title);
         this.slotActions = new LinkedHashMap<>(inventorySize);
         this.guiItems = new LinkedHashMap<>(inventorySize);
     }
@@ -173,10 +186,11 @@ public abstract class BaseGui implements InventoryHolder {
         int finalRows = rows;
         if (!(rows >= 1 && rows <= 6)) finalRows = 1;
         this.rows = finalRows;
+        this.sizedByRows = true;
         this.interactionModifiers = EnumSet.noneOf(InteractionModifier.class);
         this.title = title;
 
-        inventory = Bukkit.createInventory(this, this.rows * 9, title);
+        inventory = createInventory(title);
         slotActions = new LinkedHashMap<>();
         guiItems = new LinkedHashMap<>();
     }
@@ -194,7 +208,7 @@ public abstract class BaseGui implements InventoryHolder {
         this.interactionModifiers = EnumSet.noneOf(InteractionModifier.class);
         this.title = title;
 
-        inventory = Bukkit.createInventory(this, this.guiType.getInventoryType(), title);
+        inventory = createInventory(title);
         slotActions = new LinkedHashMap<>();
         guiItems = new LinkedHashMap<>();
     }
@@ -244,7 +258,7 @@ public abstract class BaseGui implements InventoryHolder {
 
         entry.ifPresent(it -> {
             guiItems.remove(it.getKey());
-            inventory.remove(it.getValue().getItemStack());
+            getInventory().remove(it.getValue().getItemStack());
         });
     }
 
@@ -261,7 +275,7 @@ public abstract class BaseGui implements InventoryHolder {
 
         entry.ifPresent(it -> {
             guiItems.remove(it.getKey());
-            inventory.remove(item);
+            getInventory().remove(item);
         });
     }
 
@@ -273,7 +287,7 @@ public abstract class BaseGui implements InventoryHolder {
     public void removeItem(final int slot) {
         validateSlot(slot);
         guiItems.remove(slot);
-        inventory.setItem(slot, null);
+        getInventory().setItem(slot, null);
     }
 
     /**
@@ -351,11 +365,58 @@ public abstract class BaseGui implements InventoryHolder {
         }
 
         this.rows++;
-        this.inventory = Bukkit.createInventory(this, this.rows * 9, this.title);
+        this.sizedByRows = true;
+        final Inventory previous = this.inventory;
+        this.inventory = createInventory(this.title);
+        releaseInventory(previous);
         this.update();
         this.addItem(true, notAddedItems.toArray(new GuiItem[0]));
     }
 
+    /**
+     * Applies several slot changes at once.
+     * The changes are staged on a {@link GuiTransaction}, validated once, stored like {@link #setItem(int, GuiItem)} does
+     * and written to the inventory with a single {@link Inventory#setContents(ItemStack[])} call.
+     * Only the staged slots change, slots currently showing page items of a paginated GUI keep them until its next update.
+     * If any staged slot is invalid nothing is applied.
+     *
+     * @param edit The changes to apply.
+     * @return The GUI for easier use when declaring, works like a builder.
+     */
+    @Contract("_ -> this")
+    @NotNull
+    public BaseGui edit(@NotNull final Consumer<@NotNull GuiTransaction> edit) {
+        final Inventory inventory = getInventory();
+        final GuiTransaction transaction = new GuiTransaction(inventory.getSize());
+        edit.accept(transaction);
+
+        if (transaction.isEmpty()) return this;
+
+        // Slot validation is a range check, so the extremes cover every staged slot
+        validateSlot(transaction.getMinSlot());
+        validateSlot(transaction.getMaxSlot());
+        if (transaction.getMaxSlot() >= inventory.getSize()) throwInvalidSlot(transaction.getMaxSlot());
+
+        final ItemStack[] contents = inventory.getContents();
+
+        for (int i = 0; i < transaction.getCount(); i++) {
+            final int slot = transaction.getSlot(i);
+            final GuiItem guiItem = transaction.getItem(slot);
+
+            if (guiItem == null) {
+                guiItems.remove(slot);
+            } else {
+                guiItems.put(slot, guiItem);
+            }
+
+            if (isPageSlot(slot)) continue;
+            contents[slot] = guiItem == null ? null : guiItem.getItemStack();
+        }
+
+        inventory.setContents(contents);
+        return this;
+    }
+
     /**
      * Sets the {@link GuiAction} of a default click on any item.
      * See {@link InventoryClickEvent}.
@@ -483,6 +544,7 @@ public abstract class BaseGui implements InventoryHolder {
     public void open(@NotNull final HumanEntity player) {
         if (player.isSleeping()) return;
 
+        final Inventory inventory = getInventory();
         inventory.clear();
         populateGui();
         player.openInventory(inventory);
@@ -513,16 +575,36 @@ public abstract class BaseGui implements InventoryHolder {
 
     /**
      * Updates the GUI for all the {@link Inventory} views.
+     * The inventory is repainted and its viewers resynced once on the next tick,
+     * no matter how many times the GUI was updated in between.
      */
     public void update() {
-        inventory.clear();
+        GuiRenderQueue.markDirty(this);
+    }
+
+    /**
+     * Checks whether a slot currently shows an item that isn't one of the GUI's own items, like a page item.
+     *
+     * @param slot The slot.
+     * @return True if {@link #edit(Consumer)} must leave the slot's content alone.
+     */
+    boolean isPageSlot(final int slot) {
+        return false;
+    }
+
+    /**
+     * Repaints the inventory from the GUI's items, called by the {@link GuiRenderQueue} for updated GUIs.
+     */
+    void render() {
+        getInventory().clear();
         populateGui();
-        for (HumanEntity viewer : new ArrayList<>(inventory.getViewers())) ((Player) viewer).updateInventory();
     }
 
     /**
      * Updates the title of the GUI.
-     * <i>This method may cause LAG if used on a loop</i>.
+     * Viewers only get sent the new window title when the server supports it, see {@link InventoryTitleUpdater},
+     * otherwise the inventory is recreated and reopened for every viewer.
+     * <i>This method may cause LAG if used on a loop on unsupported servers</i>.
      *
      * @param title The title to set.
      * @return The GUI for easier use when declaring, works like a builder.
@@ -532,16 +614,25 @@ public abstract class BaseGui implements InventoryHolder {
     public BaseGui updateTitle(@NotNull final String title) {
         updating = true;
 
-        final List<HumanEntity> viewers = new ArrayList<>(inventory.getViewers());
+        final Inventory current = getInventory();
+        final List<HumanEntity> viewers = new ArrayList<>(current.getViewers());
+        this.title = title;
+
+        // The inventory itself only gets recreated with the new title once nobody is viewing it anymore
+        if (viewers.isEmpty() || sendTitle(current, viewers, title)) {
+            staleTitle = true;
+            updating = false;
+            return this;
+        }
 
-        inventory = Bukkit.createInventory(this, inventory.getSize(), title);
+        final Inventory previous = replaceInventory();
 
         for (final HumanEntity player : viewers) {
-            open(player);
+            reopen(player);
         }
 
+        releaseInventory(previous);
         updating = false;
-        this.title = title;
         return this;
     }
 
@@ -582,7 +673,7 @@ public abstract class BaseGui implements InventoryHolder {
      */
     public void updateItem(final int slot, @NotNull final GuiItem item) {
         guiItems.put(slot, item);
-        inventory.setItem(slot, item.getItemStack());
+        getInventory().setItem(slot, item.getItemStack());
     }
 
     /**
@@ -837,12 +928,18 @@ public abstract class BaseGui implements InventoryHolder {
 
     /**
      * Gets the main {@link Inventory} of this GUI.
+     * With pooling enabled this makes sure the inventory belongs to this GUI before returning it:
+     * an idle pooled inventory is taken back out of the {@link InventoryPool}, a new one is acquired
+     * if another GUI took it over in the meantime, and an unviewed inventory with an outdated title is replaced.
+     * The returned instance can therefore differ between calls, don't keep it around.
      *
      * @return Gets the {@link Inventory} from the holder.
      */
     @NotNull
     @Override
     public Inventory getInventory() {
+        if (pooledHolder != null) claimPooledInventory();
+        if (staleTitle && inventory.getViewers().isEmpty()) releaseInventory(replaceInventory());
         return inventory;
     }
 
@@ -935,11 +1032,29 @@ public abstract class BaseGui implements InventoryHolder {
      * Populates the GUI with it's items.
      */
     void populateGui() {
+        final Inventory inventory = getInventory();
         for (final Map.Entry<Integer, GuiItem> entry : guiItems.entrySet()) {
             inventory.setItem(entry.getKey(), entry.getValue().getItemStack());
         }
     }
 
+    /**
+     * Opens the GUI again for a viewer after its inventory was replaced.
+     *
+     * @param player The viewer.
+     */
+    void reopen(@NotNull final HumanEntity player) {
+        open(player);
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void setDirty(final boolean dirty) {
+        this.dirty = dirty;
+    }
+
     boolean shouldRunCloseAction() {
         return runCloseAction;
     }
@@ -965,7 +1080,132 @@ public abstract class BaseGui implements InventoryHolder {
      * @param inventory The new inventory.
      */
     public void setInventory(@NotNull final Inventory inventory) {
+        final Inventory previous = this.inventory;
+        final InventoryHolder holder = inventory.getHolder();
+
         this.inventory = inventory;
+        this.pooledHolder = holder instanceof InventoryPool.PooledHolder && ((InventoryPool.PooledHolder) holder).getGui() == this
+                ? (InventoryPool.PooledHolder) holder : null;
+
+        if (previous != inventory) releaseInventory(previous);
+    }
+
+    /**
+     * Creates the main inventory for this GUI's shape, taking it from the {@link InventoryPool} when pooling is enabled.
+     *
+     * @param title The inventory title.
+     * @return The new inventory.
+     */
+    @NotNull
+    Inventory createInventory(@NotNull final String title) {
+        final InventoryPool pool = InventoryPool.getInstance();
+        staleTitle = false;
+
+        if (pool == null || retainsInventoryContents()) {
+            pooledHolder = null;
+            return sizedByRows
+                    ? Bukkit.createInventory(this, rows * 9, title)
+                    : Bukkit.createInventory(this, guiType.getInventoryType(), title);
+        }
+
+        // GUIs created with a gui type get the type's default size, like a chest with 27 slots
+        final InventoryType type = sizedByRows ? InventoryType.CHEST : guiType.getInventoryType();
+        pooledHolder = pool.acquire(this, type, sizedByRows ? rows * 9 : type.getDefaultSize(), title);
+        return pooledHolder.getInventory();
+    }
+
+    /**
+     * Hands an inventory this GUI no longer uses back to the {@link InventoryPool}.
+     *
+     * @param inventory The inventory to release.
+     */
+    void releaseInventory(@NotNull final Inventory inventory) {
+        final InventoryHolder holder = inventory.getHolder();
+        if (!(holder instanceof InventoryPool.PooledHolder)) return;
+
+        final InventoryPool.PooledHolder pooled = (InventoryPool.PooledHolder) holder;
+        if (pooled.getGui() == this) pooled.getPool().release(pooled);
+    }
+
+    /**
+     * Releases the main inventory on the next tick if nobody is viewing it anymore.
+     * The GUI takes it back from the pool once it's used again.
+     */
+    void releaseWhenUnused() {
+        final InventoryPool.PooledHolder holder = pooledHolder;
+        if (holder == null) return;
+
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (holder == pooledHolder && holder.getGui() == this) holder.getPool().release(holder);
+        });
+    }
+
+    /**
+     * Whether the inventory contents must survive while nobody is viewing the GUI.
+     * GUIs that do are never pooled.
+     *
+     * @return True if the contents can't be reset once the GUI is closed.
+     */
+    boolean retainsInventoryContents() {
+        return false;
+    }
+
+    /**
+     * Replaces the main inventory with a new one using the current title, keeping the contents if the GUI retains them.
+     *
+     * @return The previous inventory.
+     */
+    @NotNull
+    private Inventory replaceInventory() {
+        final Inventory previous = inventory;
+        inventory = createInventory(title);
+        if (retainsInventoryContents()) inventory.setContents(previous.getContents());
+        return previous;
+    }
+
+    /**
+     * Sends the new title to every viewer without reopening the inventory.
+     *
+     * @param inventory The inventory the viewers are looking at.
+     * @param viewers   The viewers.
+     * @param title     The new title.
+     * @return False if any of the viewers couldn't be updated and the inventory has to be reopened instead.
+     */
+    private boolean sendTitle(@NotNull final Inventory inventory, @NotNull final List<HumanEntity> viewers, @NotNull final String title) {
+        for (final HumanEntity viewer : viewers) {
+            if (!(viewer instanceof Player) || !InventoryTitleUpdater.updateTitle((Player) viewer, inventory, title)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Makes sure the pooled main inventory still belongs to this GUI, taking it out of the pool
+     * or getting a fresh one if another GUI took it over while this one was idle.
+     */
+    private void claimPooledInventory() {
+        // Nobody acquired the inventory since this GUI released it
+        if (pooledHolder.isIdle()) {
+            pooledHolder.getPool().reclaim(pooledHolder, this);
+            return;
+        }
+
+        if (pooledHolder.getGui() == this) return;
+
+        inventory = createInventory(title);
+    }
+
+    /**
+     * Gets the {@link BaseGui} behind an inventory holder, taking pooled inventories into account.
+     *
+     * @param holder The holder of the inventory.
+     * @return The GUI or {@code null} if the holder isn't a GUI.
+     */
+    @Nullable
+    public static BaseGui getGui(@Nullable final InventoryHolder holder) {
+        if (holder instanceof BaseGui) return (BaseGui) holder;
+        if (holder instanceof InventoryPool.PooledHolder) return ((InventoryPool.PooledHolder) holder).getGui();
+        return null;
     }
 
     /*
@@ -27,6 +27,7 @@ import com.songoda.core.gui.components.GuiAction;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.*;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 public final class GuiListener implements Listener {
 
@@ -37,10 +38,9 @@ public final class GuiListener implements Listener {
      */
     @EventHandler
     public void onGuiClick(final InventoryClickEvent event) {
-        if (!(event.getInventory().getHolder() instanceof BaseGui)) return;
-
         // Gui
-        final BaseGui gui = (BaseGui) event.getInventory().getHolder();
+        final BaseGui gui = BaseGui.getGui(event.getInventory().getHolder());
+        if (gui == null) return;
 
         // Executes the outside click action
         final GuiAction<InventoryClickEvent> outsideClickAction = gui.getOutsideClickAction();
@@ -102,10 +102,9 @@ public final class GuiListener implements Listener {
      */
     @EventHandler
     public void onGuiDrag(final InventoryDragEvent event) {
-        if (!(event.getInventory().getHolder() instanceof BaseGui)) return;
-
         // Gui
-        final BaseGui gui = (BaseGui) event.getInventory().getHolder();
+        final BaseGui gui = BaseGui.getGui(event.getInventory().getHolder());
+        if (gui == null) return;
 
         // Default click action and checks weather or not there is a default action and executes it
         final GuiAction<InventoryDragEvent> dragAction = gui.getDragAction();
@@ -119,10 +118,9 @@ public final class GuiListener implements Listener {
      */
     @EventHandler
     public void onGuiClose(final InventoryCloseEvent event) {
-        if (!(event.getInventory().getHolder() instanceof BaseGui)) return;
-
         // GUI
-        final BaseGui gui = (BaseGui) event.getInventory().getHolder();
+        final BaseGui gui = BaseGui.getGui(event.getInventory().getHolder());
+        if (gui == null) return;
 
         // If it's a persistent paginated gui saves the current page modifications
         if (gui instanceof PersistentPaginatedGui) {
@@ -134,6 +132,9 @@ public final class GuiListener implements Listener {
 
         // Checks if there is or not an action set and executes it
         if (closeAction != null && !gui.isUpdating() && gui.shouldRunCloseAction()) closeAction.execute(event);
+
+        // Hands a pooled inventory back once nobody is viewing it anymore
+        if (!gui.isUpdating()) gui.releaseWhenUnused();
     }
 
     /**
@@ -143,10 +144,9 @@ public final class GuiListener implements Listener {
      */
     @EventHandler
     public void onGuiOpen(final InventoryOpenEvent event) {
-        if (!(event.getInventory().getHolder() instanceof BaseGui)) return;
-
         // GUI
-        final BaseGui gui = (BaseGui) event.getInventory().getHolder();
+        final BaseGui gui = BaseGui.getGui(event.getInventory().getHolder());
+        if (gui == null) return;
 
         // The GUI action for opening
         final GuiAction<InventoryOpenEvent> openAction = gui.getOpenGuiAction();
@@ -154,4 +154,14 @@ public final class GuiListener implements Listener {
         // Checks if there is or not an action set and executes it
         if (openAction != null && !gui.isUpdating()) openAction.execute(event);
     }
-}
\ No newline at end of file
+
+    /**
+     * Forgets the GUI navigation history of players leaving
+     *
+     * @param event The PlayerQuitEvent
+     */
+    @EventHandler
+    public void onPlayerQuit(final PlayerQuitEvent event) {
+        GuiNavigator.remove(event.getPlayer().getUniqueId());
+    }
+}
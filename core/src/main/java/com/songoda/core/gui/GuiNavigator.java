@@ -0,0 +1,110 @@
+package com.songoda.core.gui;
+
+import org.bukkit.entity.HumanEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per player navigation stack of GUIs.
+ * Child GUIs are {@link LazyGui}s, so they're only built once navigated to, and going back reopens
+ * the cached parent instead of constructing it again.
+ * Every open starts a new {@link GuiWorkBudget}.
+ *
+ * @since 3.0.0
+ */
+public final class GuiNavigator {
+
+    // Navigators of the online players.
+    private static final Map<UUID, GuiNavigator> navigators = new HashMap<>();
+
+    private final HumanEntity player;
+    // The opened GUIs, the current one on top.
+    private final Deque<LazyGui> history = new ArrayDeque<>();
+
+    private GuiNavigator(@NotNull final HumanEntity player) {
+        this.player = player;
+    }
+
+    /**
+     * Gets the navigator of a player, creating it if needed.
+     *
+     * @param player The player.
+     * @return The player's {@link GuiNavigator}.
+     */
+    @NotNull
+    public static GuiNavigator of(@NotNull final HumanEntity player) {
+        return navigators.computeIfAbsent(player.getUniqueId(), uuid -> new GuiNavigator(player));
+    }
+
+    /**
+     * Forgets the navigation history of a player.
+     *
+     * @param uuid The player's {@link UUID}.
+     */
+    static void remove(@NotNull final UUID uuid) {
+        navigators.remove(uuid);
+    }
+
+    /**
+     * Opens a GUI on top of the current one.
+     *
+     * @param gui The GUI to open.
+     */
+    public void open(@NotNull final LazyGui gui) {
+        if (history.peek() != gui) history.push(gui);
+        show(gui);
+    }
+
+    /**
+     * Opens a GUI, dropping the navigation history first.
+     *
+     * @param gui The GUI to open.
+     */
+    public void openRoot(@NotNull final LazyGui gui) {
+        history.clear();
+        open(gui);
+    }
+
+    /**
+     * Goes back to the previous GUI, reopening its cached instance.
+     *
+     * @return False if there is no previous GUI.
+     */
+    public boolean back() {
+        if (history.size() < 2) return false;
+
+        history.pop();
+        show(history.peek());
+        return true;
+    }
+
+    /**
+     * Gets the GUI on top of the navigation stack.
+     *
+     * @return The current GUI or {@code null} if nothing was opened yet.
+     */
+    @Nullable
+    public LazyGui current() {
+        return history.peek();
+    }
+
+    /**
+     * Gets how many GUIs are on the navigation stack.
+     *
+     * @return The navigation depth.
+     */
+    public int depth() {
+        return history.size();
+    }
+
+    private void show(@NotNull final LazyGui gui) {
+        GuiWorkBudget.beginOpen();
+        gui.get().open(player);
+    }
+}
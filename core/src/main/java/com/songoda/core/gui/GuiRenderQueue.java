@@ -0,0 +1,59 @@
+package com.songoda.core.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coalesces GUI repaints and viewer inventory resyncs.
+ * GUIs updated several times during a tick are only repainted once and resynced once per viewer,
+ * by a single task running on the next tick.
+ */
+final class GuiRenderQueue {
+
+    // The plugin instance for scheduling the flush.
+    private static final Plugin plugin = JavaPlugin.getProvidingPlugin(GuiRenderQueue.class);
+
+    // GUIs waiting for their viewers to be resynced.
+    private static final List<BaseGui> dirty = new ArrayList<>();
+
+    private GuiRenderQueue() {
+    }
+
+    /**
+     * Queues a repaint of the GUI and a resync for all its viewers, scheduling the flush if none is pending.
+     *
+     * @param gui The GUI to update.
+     */
+    static void markDirty(@NotNull final BaseGui gui) {
+        if (gui.isDirty()) return;
+
+        gui.setDirty(true);
+        if (dirty.isEmpty()) Bukkit.getScheduler().runTask(plugin, GuiRenderQueue::flush);
+        dirty.add(gui);
+    }
+
+    /**
+     * Repaints every dirty GUI and resyncs its viewers once.
+     */
+    static void flush() {
+        // Copied so GUIs marked dirty while flushing schedule a new flush instead of being lost
+        final BaseGui[] guis = dirty.toArray(new BaseGui[0]);
+        dirty.clear();
+
+        for (final BaseGui gui : guis) {
+            gui.setDirty(false);
+            gui.render();
+
+            for (final HumanEntity viewer : gui.getInventory().getViewers()) {
+                if (viewer instanceof Player) ((Player) viewer).updateInventory();
+            }
+        }
+    }
+}
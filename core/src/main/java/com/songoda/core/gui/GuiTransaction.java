@@ -0,0 +1,167 @@
+package com.songoda.core.gui;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Slot changes staged by {@link BaseGui#edit(java.util.function.Consumer)}.
+ * Nothing is applied until the edit finishes, the slots are then validated once
+ * and written to the GUI's inventory with a single {@link org.bukkit.inventory.Inventory#setContents} call.
+ *
+ * @since 3.0.0
+ */
+public final class GuiTransaction {
+
+    // Staged item per slot, null means the slot gets cleared.
+    private final GuiItem[] items;
+    // Whether the slot was touched by this transaction.
+    private final boolean[] staged;
+    // Touched slots in staging order.
+    private final int[] slots;
+    private int count;
+
+    // Extremes of every requested slot, including the ones outside of the inventory.
+    private int minSlot = Integer.MAX_VALUE;
+    private int maxSlot = Integer.MIN_VALUE;
+
+    GuiTransaction(final int size) {
+        this.items = new GuiItem[size];
+        this.staged = new boolean[size];
+        this.slots = new int[size];
+    }
+
+    /**
+     * Stages a {@link GuiItem} for a specific slot.
+     *
+     * @param slot    The GUI slot.
+     * @param guiItem The {@link GuiItem} to add to the slot.
+     * @return The transaction, for chaining.
+     */
+    @NotNull
+    public GuiTransaction setItem(final int slot, @NotNull final GuiItem guiItem) {
+        stage(slot, guiItem);
+        return this;
+    }
+
+    /**
+     * Alternative {@link #setItem(int, GuiItem)} that uses <i>ROWS</i> and <i>COLUMNS</i> instead of slots.
+     *
+     * @param row     The GUI row number.
+     * @param col     The GUI column number.
+     * @param guiItem The {@link GuiItem} to add to the slot.
+     * @return The transaction, for chaining.
+     */
+    @NotNull
+    public GuiTransaction setItem(final int row, final int col, @NotNull final GuiItem guiItem) {
+        stage(getSlotFromRowCol(row, col), guiItem);
+        return this;
+    }
+
+    /**
+     * Alternative {@link #setItem(int, GuiItem)} that takes a {@link List} of slots instead.
+     *
+     * @param slots   The slots in which the item should go.
+     * @param guiItem The {@link GuiItem} to add to the slots.
+     * @return The transaction, for chaining.
+     */
+    @NotNull
+    public GuiTransaction setItem(@NotNull final List<Integer> slots, @NotNull final GuiItem guiItem) {
+        for (final int slot : slots) {
+            stage(slot, guiItem);
+        }
+
+        return this;
+    }
+
+    /**
+     * Stages the removal of the {@link GuiItem} in a specific slot.
+     *
+     * @param slot The GUI slot.
+     * @return The transaction, for chaining.
+     */
+    @NotNull
+    public GuiTransaction removeItem(final int slot) {
+        stage(slot, null);
+        return this;
+    }
+
+    /**
+     * Alternative {@link #removeItem(int)} that uses <i>ROWS</i> and <i>COLUMNS</i> instead of slots.
+     *
+     * @param row The row.
+     * @param col The column.
+     * @return The transaction, for chaining.
+     */
+    @NotNull
+    public GuiTransaction removeItem(final int row, final int col) {
+        stage(getSlotFromRowCol(row, col), null);
+        return this;
+    }
+
+    /**
+     * Gets the {@link GuiItem} staged for a slot.
+     *
+     * @param slot The GUI slot.
+     * @return The staged item or {@code null} if the slot is untouched or staged for removal.
+     */
+    @Nullable
+    public GuiItem getStagedItem(final int slot) {
+        return slot >= 0 && slot < items.length ? items[slot] : null;
+    }
+
+    /**
+     * Checks whether a slot was touched by this transaction.
+     *
+     * @param slot The GUI slot.
+     * @return True if the slot has a staged change.
+     */
+    public boolean isStaged(final int slot) {
+        return slot >= 0 && slot < staged.length && staged[slot];
+    }
+
+    private void stage(final int slot, @Nullable final GuiItem guiItem) {
+        if (slot < minSlot) minSlot = slot;
+        if (slot > maxSlot) maxSlot = slot;
+
+        // Out of range slots only count towards the validation on commit
+        if (slot < 0 || slot >= items.length) return;
+
+        if (!staged[slot]) {
+            staged[slot] = true;
+            slots[count++] = slot;
+        }
+
+        items[slot] = guiItem;
+    }
+
+    boolean isEmpty() {
+        return minSlot > maxSlot;
+    }
+
+    int getMinSlot() {
+        return minSlot;
+    }
+
+    int getMaxSlot() {
+        return maxSlot;
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getSlot(final int index) {
+        return slots[index];
+    }
+
+    @Nullable
+    GuiItem getItem(final int slot) {
+        return items[slot];
+    }
+
+    private int getSlotFromRowCol(final int row, final int col) {
+        return (col + (row - 1) * 9) - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.songoda.core.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget for populating GUIs.
+ * Every open done through the {@link GuiNavigator} gets a budget, work submitted while it lasts runs right away
+ * and everything else is deferred to the following ticks, running at most one budget's worth of work per tick.
+ * GUIs that received deferred work are updated once the tick's work is done.
+ *
+ * @since 3.0.0
+ */
+public final class GuiWorkBudget {
+
+    // Default budget of an open and of every following tick.
+    public static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    // The plugin instance for scheduling deferred work.
+    private static final Plugin plugin = JavaPlugin.getProvidingPlugin(GuiWorkBudget.class);
+
+    // Deferred work, in submission order.
+    private static final Deque<Work> pending = new ArrayDeque<>();
+
+    private static long budgetNanos = DEFAULT_BUDGET_NANOS;
+    // Until when work can still run right away.
+    private static long deadline = System.nanoTime();
+    private static boolean scheduled;
+
+    private GuiWorkBudget() {
+    }
+
+    /**
+     * Sets the budget of an open and of every following tick.
+     *
+     * @param budget The budget.
+     * @param unit   The unit of the budget.
+     */
+    public static void setBudget(final long budget, @NotNull final TimeUnit unit) {
+        budgetNanos = Math.max(0, unit.toNanos(budget));
+    }
+
+    /**
+     * Gets the budget of an open and of every following tick.
+     *
+     * @return The budget in nanoseconds.
+     */
+    public static long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Starts the budget of a new open.
+     */
+    public static void beginOpen() {
+        deadline = System.nanoTime() + budgetNanos;
+    }
+
+    /**
+     * Runs work for a GUI while the current open's budget lasts, deferring it to the next ticks otherwise.
+     * Work always runs in submission order.
+     *
+     * @param gui  The GUI the work populates, it gets updated after deferred work ran.
+     * @param work The work.
+     */
+    public static void submit(@NotNull final BaseGui gui, @NotNull final Runnable work) {
+        if (pending.isEmpty() && System.nanoTime() < deadline) {
+            work.run();
+            return;
+        }
+
+        pending.add(new Work(gui, work));
+
+        if (!scheduled) {
+            scheduled = true;
+            Bukkit.getScheduler().runTask(plugin, GuiWorkBudget::drain);
+        }
+    }
+
+    /**
+     * Gets the amount of deferred work waiting to run.
+     *
+     * @return The deferred work count.
+     */
+    public static int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Runs deferred work until the tick's budget is spent, rescheduling itself if any is left.
+     */
+    private static void drain() {
+        scheduled = false;
+
+        final long until = System.nanoTime() + budgetNanos;
+        final Set<BaseGui> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        // At least one piece of work runs every tick so a tiny budget can't stall the queue
+        do {
+            final Work work = pending.poll();
+            if (work == null) break;
+
+            work.work.run();
+            touched.add(work.gui);
+        } while (System.nanoTime() < until);
+
+        for (final BaseGui gui : touched) {
+            gui.update();
+        }
+
+        if (!pending.isEmpty() && !scheduled) {
+            scheduled = true;
+            Bukkit.getScheduler().runTask(plugin, GuiWorkBudget::drain);
+        }
+    }
+
+    private static final class Work {
+
+        private final BaseGui gui;
+        private final Runnable work;
+
+        private Work(@NotNull final BaseGui gui, @NotNull final Runnable work) {
+            this.gui = gui;
+            this.work = work;
+        }
+    }
+}
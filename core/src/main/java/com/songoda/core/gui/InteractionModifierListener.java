@@ -54,10 +54,9 @@ public final class InteractionModifierListener implements Listener {
      */
     @EventHandler
     public void onGuiClick(final InventoryClickEvent event) {
-        if (!(event.getInventory().getHolder() instanceof BaseGui)) return;
-
         // Gui
-        final BaseGui gui = (BaseGui) event.getInventory().getHolder();
+        final BaseGui gui = BaseGui.getGui(event.getInventory().getHolder());
+        if (gui == null) return;
 
         // if player is trying to do a disabled action, cancel it
         if ((!gui.canPlaceItems() && isPlaceItemEvent(event)) || (!gui.canTakeItems() && isTakeItemEvent(event)) || (!gui.canSwapItems() && isSwapItemEvent(event)) || (!gui.canDropItems() && isDropItemEvent(event)) || (!gui.allowsOtherActions() && isOtherEvent(event))) {
@@ -75,10 +74,9 @@ public final class InteractionModifierListener implements Listener {
      */
     @EventHandler
     public void onGuiDrag(final InventoryDragEvent event) {
-        if (!(event.getInventory().getHolder() instanceof BaseGui)) return;
-
         // Gui
-        final BaseGui gui = (BaseGui) event.getInventory().getHolder();
+        final BaseGui gui = BaseGui.getGui(event.getInventory().getHolder());
+        if (gui == null) return;
 
         // if players are allowed to place items on the GUI, or player is not dragging on GUI, return
         if (gui.canPlaceItems() || !isDraggingOnGui(event)) return;
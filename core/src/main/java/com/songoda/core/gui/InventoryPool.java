@@ -0,0 +1,251 @@
+package com.songoda.core.gui;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded pool of GUI inventories, keyed by their shape and title.
+ * Inventories of GUIs without any remaining viewers are cleared and handed to the next GUI with the same shape and title,
+ * instead of allocating a new inventory every time a GUI is constructed or retitled.
+ * <p>
+ * Pooled inventories are owned by a {@link PooledHolder} instead of the {@link BaseGui} itself,
+ * use {@link BaseGui#getGui(InventoryHolder)} to resolve the GUI behind them. Because of that the pool is disabled by default.
+ *
+ * @since 3.0.0
+ */
+public final class InventoryPool {
+
+    // Default amount of idle inventories kept around.
+    public static final int DEFAULT_CAPACITY = 64;
+
+    // The active pool, null while pooling is disabled.
+    private static InventoryPool instance;
+
+    // Idle inventories per shape and title.
+    private final Map<Key, Deque<PooledHolder>> idle = new HashMap<>();
+    private final int capacity;
+    private int idleCount;
+
+    private InventoryPool(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Enables inventory pooling with the {@link #DEFAULT_CAPACITY}.
+     */
+    public static void enable() {
+        enable(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Enables inventory pooling, GUIs created from now on will take their inventories from the pool.
+     *
+     * @param capacity The maximum amount of idle inventories to keep.
+     */
+    public static void enable(final int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Pool capacity must be at least 1!");
+        disable();
+        instance = new InventoryPool(capacity);
+    }
+
+    /**
+     * Disables inventory pooling and drops every idle inventory.
+     * GUIs already owning a pooled inventory keep it.
+     */
+    public static void disable() {
+        if (instance == null) return;
+
+        instance.idle.clear();
+        instance.idleCount = 0;
+        instance = null;
+    }
+
+    /**
+     * Checks whether inventory pooling is enabled.
+     *
+     * @return True if GUIs take their inventories from the pool.
+     */
+    public static boolean isEnabled() {
+        return instance != null;
+    }
+
+    /**
+     * Gets the active pool.
+     *
+     * @return The active pool or {@code null} if pooling is disabled.
+     */
+    @Nullable
+    static InventoryPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Gets the amount of idle inventories waiting to be reused.
+     *
+     * @return The idle inventory count.
+     */
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    /**
+     * Gets the maximum amount of idle inventories.
+     *
+     * @return The capacity of the pool.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Takes an idle inventory with the given shape and title, or creates a new one if there is none.
+     *
+     * @param gui   The GUI that will own the inventory.
+     * @param type  The {@link InventoryType} of the inventory.
+     * @param size  The size of the inventory, only used for {@link InventoryType#CHEST}.
+     * @param title The inventory title.
+     * @return The holder of the inventory, bound to the GUI.
+     */
+    @NotNull
+    PooledHolder acquire(@NotNull final BaseGui gui, @NotNull final InventoryType type, final int size, @NotNull final String title) {
+        final Key key = new Key(type, size, title);
+        final Deque<PooledHolder> holders = idle.get(key);
+
+        if (holders != null && !holders.isEmpty()) {
+            final PooledHolder holder = holders.pop();
+            idleCount--;
+            holder.idle = false;
+            holder.gui = gui;
+            return holder;
+        }
+
+        final PooledHolder holder = new PooledHolder(this, key, gui);
+        holder.inventory = type == InventoryType.CHEST
+                ? Bukkit.createInventory(holder, size, title)
+                : Bukkit.createInventory(holder, type, title);
+        return holder;
+    }
+
+    /**
+     * Clears the inventory and puts it back in the pool, unless it still has viewers or the pool is full.
+     * The GUI keeps the inventory until another GUI acquires it.
+     *
+     * @param holder The holder to release.
+     */
+    void release(@NotNull final PooledHolder holder) {
+        if (holder.idle || holder.pool != this || !holder.inventory.getViewers().isEmpty()) return;
+
+        holder.inventory.clear();
+        // Idle inventories don't keep their last GUI, its items and actions, reachable
+        holder.gui = null;
+        holder.idle = true;
+        if (idleCount >= capacity) return;
+
+        idle.computeIfAbsent(holder.key, key -> new ArrayDeque<>()).push(holder);
+        idleCount++;
+    }
+
+    /**
+     * Takes an idle inventory out of the pool so the GUI that released it can use it again.
+     *
+     * @param holder The holder to reclaim.
+     * @param gui    The GUI taking the inventory back.
+     */
+    void reclaim(@NotNull final PooledHolder holder, @NotNull final BaseGui gui) {
+        if (!holder.idle) return;
+        holder.idle = false;
+        holder.gui = gui;
+
+        final Deque<PooledHolder> holders = idle.get(holder.key);
+        if (holders != null && holders.remove(holder)) idleCount--;
+    }
+
+    /**
+     * Holder of pooled inventories, points to the GUI currently using the inventory, none while it's idle.
+     */
+    public static final class PooledHolder implements InventoryHolder {
+
+        private final InventoryPool pool;
+        private final Key key;
+        private Inventory inventory;
+        private BaseGui gui;
+        private boolean idle;
+
+        private PooledHolder(@NotNull final InventoryPool pool, @NotNull final Key key, @NotNull final BaseGui gui) {
+            this.pool = pool;
+            this.key = key;
+            this.gui = gui;
+        }
+
+        /**
+         * Gets the GUI currently owning the inventory.
+         *
+         * @return The owning {@link BaseGui} or {@code null} while the inventory is idle.
+         */
+        @Nullable
+        public BaseGui getGui() {
+            return gui;
+        }
+
+        /**
+         * Checks whether the inventory is waiting in the pool.
+         *
+         * @return True if the inventory is idle.
+         */
+        public boolean isIdle() {
+            return idle;
+        }
+
+        @NotNull
+        InventoryPool getPool() {
+            return pool;
+        }
+
+        @NotNull
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+    }
+
+    /**
+     * Shape and title of a pooled inventory.
+     */
+    private static final class Key {
+
+        private final InventoryType type;
+        private final int size;
+        private final String title;
+        private final int hash;
+
+        private Key(@NotNull final InventoryType type, final int size, @NotNull final String title) {
+            this.type = type;
+            this.size = type == InventoryType.CHEST ? size : 0;
+            this.title = title;
+            this.hash = 31 * (31 * type.hashCode() + this.size) + title.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Key)) return false;
+
+            final Key key = (Key) other;
+            return hash == key.hash && size == key.size && type == key.type && title.equals(key.title);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
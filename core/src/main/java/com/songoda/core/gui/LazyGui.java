@@ -0,0 +1,77 @@
+package com.songoda.core.gui;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * A GUI that is only constructed the first time it's needed and cached afterwards,
+ * so menus can link to each other without building every child up front.
+ *
+ * @since 3.0.0
+ */
+public final class LazyGui {
+
+    // Builds the GUI on first use.
+    private final Supplier<? extends BaseGui> factory;
+    // The GUI once built.
+    private BaseGui gui;
+
+    private LazyGui(@NotNull final Supplier<? extends BaseGui> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates a lazy GUI that will be built by the given factory.
+     *
+     * @param factory The factory building the GUI.
+     * @return A new {@link LazyGui}.
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static LazyGui of(@NotNull final Supplier<? extends BaseGui> factory) {
+        return new LazyGui(factory);
+    }
+
+    /**
+     * Wraps an already built GUI.
+     *
+     * @param gui The GUI.
+     * @return A new {@link LazyGui} holding the GUI.
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static LazyGui of(@NotNull final BaseGui gui) {
+        final LazyGui lazyGui = new LazyGui(() -> gui);
+        lazyGui.gui = gui;
+        return lazyGui;
+    }
+
+    /**
+     * Gets the GUI, building it if this is the first time it's requested.
+     *
+     * @return The GUI.
+     */
+    @NotNull
+    public BaseGui get() {
+        if (gui == null) gui = factory.get();
+        return gui;
+    }
+
+    /**
+     * Checks whether the GUI was built already.
+     *
+     * @return True if the GUI is cached.
+     */
+    public boolean isBuilt() {
+        return gui != null;
+    }
+
+    /**
+     * Drops the cached GUI so it's built again the next time it's requested.
+     */
+    public void invalidate() {
+        gui = null;
+    }
+}
@@ -24,7 +24,6 @@
 package com.songoda.core.gui;
 
 import com.songoda.core.gui.components.InteractionModifier;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.HumanEntity;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
@@ -132,13 +131,17 @@ public class PaginatedGui extends BaseGui {
         pageItems.addAll(Arrays.asList(items));
     }
 
+    @Override
+    boolean isPageSlot(final int slot) {
+        return currentPage.containsKey(slot);
+    }
+
     /**
-     * Overridden {@link BaseGui#update()} to use the paginated open
+     * Overridden {@link BaseGui#render()} to repaint the current page as well
      */
     @Override
-    public void update() {
-        getInventory().clear();
-        populateGui();
+    void render() {
+        super.render();
 
         updatePage();
     }
@@ -251,29 +254,13 @@ public class PaginatedGui extends BaseGui {
     }
 
     /**
-     * Overrides {@link BaseGui#updateTitle(String)} to use the paginated populator instead
-     * Updates the title of the GUI
-     * <i>This method may cause LAG if used on a loop</i>
+     * Overrides {@link BaseGui#reopen(HumanEntity)} so title updates keep the current page
      *
-     * @param title The title to set
-     * @return The GUI for easier use when declaring, works like a builder
+     * @param player The {@link HumanEntity} to open the GUI to
      */
     @Override
-    @NotNull
-    public BaseGui updateTitle(@NotNull final String title) {
-        setUpdating(true);
-
-        final List<HumanEntity> viewers = new ArrayList<>(getInventory().getViewers());
-
-        setInventory(Bukkit.createInventory(this, getInventory().getSize(), title));
-
-        for (final HumanEntity player : viewers) {
-            open(player, getPageNum());
-        }
-
-        setUpdating(false);
-
-        return this;
+    void reopen(@NotNull final HumanEntity player) {
+        open(player, getPageNum());
     }
 
     /**
@@ -105,4 +105,14 @@ public class StorageGui extends BaseGui {
         player.openInventory(getInventory());
     }
 
+    /**
+     * Storage contents must survive closing the GUI, so its inventory is never pooled
+     *
+     * @return Always true
+     */
+    @Override
+    boolean retainsInventoryContents() {
+        return true;
+    }
+
 }
\ No newline at end of file
@@ -61,9 +61,11 @@ public final class GuiFiller {
      */
     public void fillTop(@NotNull final List<GuiItem> guiItems) {
         final List<GuiItem> items = repeatList(guiItems, gui.getRows() * 9);
-        for (int i = 0; i < 9; i++) {
-            if (!gui.getGuiItems().containsKey(i)) gui.setItem(i, items.get(i));
-        }
+        gui.edit(transaction -> {
+            for (int i = 0; i < 9; i++) {
+                if (!gui.getGuiItems().containsKey(i)) transaction.setItem(i, items.get(i));
+            }
+        });
     }
 
     /**
@@ -83,11 +85,13 @@ public final class GuiFiller {
     public void fillBottom(@NotNull final List<GuiItem> guiItems) {
         final int rows = gui.getRows();
         final List<GuiItem> items = repeatList(guiItems, rows * 9);
-        for (int i = 9; i > 0; i--) {
-            if (gui.getGuiItems().get((rows * 9) - i) == null) {
-                gui.setItem((rows * 9) - i, items.get(i));
+        gui.edit(transaction -> {
+            for (int i = 9; i > 0; i--) {
+                if (gui.getGuiItems().get((rows * 9) - i) == null) {
+                    transaction.setItem((rows * 9) - i, items.get(i));
+                }
             }
-        }
+        });
     }
 
     /**
@@ -110,15 +114,17 @@ public final class GuiFiller {
 
         final List<GuiItem> items = repeatList(guiItems, rows * 9);
 
-        for (int i = 0; i < rows * 9; i++) {
-            if ((i <= 8) || (i >= (rows * 9) - 9)
-                    || i == 9 || i == 18
-                    || i == 27 || i == 36
-                    || i == 17 || i == 26
-                    || i == 35 || i == 44)
-                gui.setItem(i, items.get(i));
+        gui.edit(transaction -> {
+            for (int i = 0; i < rows * 9; i++) {
+                if ((i <= 8) || (i >= (rows * 9) - 9)
+                        || i == 9 || i == 18
+                        || i == 27 || i == 36
+                        || i == 17 || i == 26
+                        || i == 35 || i == 44)
+                    transaction.setItem(i, items.get(i));
 
-        }
+            }
+        });
     }
 
     /**
@@ -154,15 +160,17 @@ public final class GuiFiller {
         final int rows = gui.getRows();
         final List<GuiItem> items = repeatList(guiItems, rows * 9);
 
-        for (int row = 1; row <= rows; row++) {
-            for (int col = 1; col <= 9; col++) {
-                int slot = getSlotFromRowCol(row, col);
-                if (!((row >= minRow && row <= maxRow) && (col >= minCol && col <= maxCol)))
-                    continue;
+        gui.edit(transaction -> {
+            for (int row = 1; row <= rows; row++) {
+                for (int col = 1; col <= 9; col++) {
+                    int slot = getSlotFromRowCol(row, col);
+                    if (!((row >= minRow && row <= maxRow) && (col >= minCol && col <= maxCol)))
+                        continue;
 
-                gui.setItem(slot, items.get(slot));
+                    transaction.setItem(slot, items.get(slot));
+                }
             }
-        }
+        });
     }
 
     /**
@@ -195,9 +203,11 @@ public final class GuiFiller {
 
         final int rows = gui.getRows();
         final List<GuiItem> items = repeatList(guiItems, rows * 9);
-        for (int i = 0; i < fill; i++) {
-            if (gui.getGuiItems().get(i) == null) gui.setItem(i, items.get(i));
-        }
+        gui.edit(transaction -> {
+            for (int i = 0; i < fill; i++) {
+                if (gui.getGuiItems().get(i) == null) transaction.setItem(i, items.get(i));
+            }
+        });
     }
 
     /**
@@ -2,7 +2,17 @@ package com.songoda.core.lootables;
 
 import com.songoda.core.lootables.loot.LootManager;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class Lootables {
+    // Every created instance, for tooling working across plugins.
+    // Weakly referenced, so instances of disabled plugins that never called close() can still be collected.
+    private static final List<WeakReference<Lootables>> instances = new CopyOnWriteArrayList<>();
+
     private final String lootablesDir;
 
     private final LootManager lootManager;
@@ -10,6 +20,29 @@ public class Lootables {
     public Lootables(String lootablesDir) {
         this.lootablesDir = lootablesDir;
         this.lootManager = new LootManager(this);
+
+        instances.add(new WeakReference<>(this));
+    }
+
+    /**
+     * Gets every instance that wasn't closed or garbage collected yet.
+     *
+     * @return The open instances.
+     */
+    public static List<Lootables> getInstances() {
+        List<Lootables> open = new ArrayList<>(instances.size());
+
+        for (WeakReference<Lootables> reference : instances) {
+            Lootables lootables = reference.get();
+
+            if (lootables == null) {
+                instances.remove(reference);
+            } else {
+                open.add(lootables);
+            }
+        }
+
+        return Collections.unmodifiableList(open);
     }
 
     public String getLootablesDir() {
@@ -19,4 +52,13 @@ public class Lootables {
     public LootManager getLootManager() {
         return lootManager;
     }
+
+    /**
+     * Stops watching the lootables directory and forgets this instance.
+     * Plugins should call this when they're disabled, so reloads don't keep the old instance around.
+     */
+    public void close() {
+        lootManager.stopWatching();
+        instances.removeIf(reference -> reference.get() == null || reference.get() == this);
+    }
 }
@@ -3,6 +3,7 @@ package com.songoda.core.lootables.gui;
 import com.cryptomorin.xseries.XMaterial;
 import com.songoda.core.SongodaCore;
 import com.songoda.core.gui.Gui;
+import com.songoda.core.gui.GuiNavigator;
 import com.songoda.core.gui.builder.item.ItemBuilder;
 import com.songoda.core.lootables.loot.Loot;
 import net.kyori.adventure.text.Component;
@@ -41,7 +42,7 @@ public abstract class AbstractGuiListEditor {
         List<String> lore = (getData() == null ? new ArrayList<>() : getData());
 
         gui.setItem(Arrays.asList(2, 6), ItemBuilder.from(XMaterial.OAK_DOOR.parseItem()).name(Component.text("Back", NamedTextColor.RED)).asGuiItem(event -> {
-            returnGui.open(player);
+            back();
         }));
 
         gui.setItem(3, ItemBuilder.from(XMaterial.ARROW.parseItem()).name(Component.text("Add new line", NamedTextColor.GREEN)).asGuiItem(event -> {
@@ -57,7 +58,7 @@ public abstract class AbstractGuiListEditor {
                                 }
 
                                 return AnvilGUI.Response.close();
-                            }).onClose(player -> paint());
+                            }).onClose(player -> paint()).open(player);
                 }));
 
         gui.setItem(4, ItemBuilder.from(XMaterial.WRITABLE_BOOK.parseItem()).name(Component.text("Lore:", NamedTextColor.BLUE))
@@ -70,6 +71,18 @@ public abstract class AbstractGuiListEditor {
             updateData(lore);
             paint();
         }));
+
+        gui.update();
+    }
+
+    public Gui getGui() {
+        return gui;
+    }
+
+    private void back() {
+        if (!GuiNavigator.of(player).back()) {
+            returnGui.open(player);
+        }
     }
 
     protected abstract List<String> getData();
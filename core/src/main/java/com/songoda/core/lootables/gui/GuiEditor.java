@@ -3,6 +3,9 @@ package com.songoda.core.lootables.gui;
 import com.cryptomorin.xseries.XMaterial;
 import com.songoda.core.compatibility.ServerVersion;
 import com.songoda.core.gui.Gui;
+import com.songoda.core.gui.GuiNavigator;
+import com.songoda.core.gui.GuiWorkBudget;
+import com.songoda.core.gui.LazyGui;
 import com.songoda.core.gui.PaginatedGui;
 import com.songoda.core.gui.builder.item.ItemBuilder;
 import com.songoda.core.lootables.loot.LootManager;
@@ -14,13 +17,18 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class GuiEditor {
     private final LootManager lootManager;
     private final Player player;
     private final PaginatedGui gui;
 
+    // Lootable editors are only built once navigated to
+    private final Map<Lootable, LazyGui> lootableEditors = new HashMap<>();
+
     public GuiEditor(LootManager lootManager, Player player) {
         this.lootManager = lootManager;
         this.player = player;
@@ -32,12 +40,28 @@ public class GuiEditor {
                 .disableAllInteractions()
                 .create();
 
-        paint();
+        GuiNavigator.of(player).openRoot(LazyGui.of(() -> {
+            paint();
+            return gui;
+        }));
     }
 
     private void paint() {
         List<Lootable> lootables = new ArrayList<>(lootManager.getRegisteredLootables().values());
 
+        // Icons that don't fit in the open's budget are added over the next ticks
+        for (Lootable lootable : lootables) {
+            GuiWorkBudget.submit(gui, () -> gui.addItem(ItemBuilder.from(getIcon(lootable.getKey())).asGuiItem(event -> {
+                GuiNavigator.of(player).open(lootableEditors.computeIfAbsent(lootable,
+                        key -> LazyGui.of(() -> new GuiLootableEditor(lootManager, key, player, gui).getGui())));
+            })));
+        }
+
+        // Runs after every icon was added so the page count is known
+        GuiWorkBudget.submit(gui, this::paintPageButtons);
+    }
+
+    private void paintPageButtons() {
         if (gui.getCurrentPageNum() != 1) {
             gui.setItem(5, 2, ItemBuilder.from(XMaterial.ARROW.parseItem()).name(Component.text("Back")).asGuiItem(event -> {
                 gui.previous();
@@ -49,12 +73,6 @@ public class GuiEditor {
                 gui.next();
             }));
         }
-
-        for (Lootable lootable : lootables) {
-            gui.addItem(ItemBuilder.from(getIcon(lootable.getKey())).asGuiItem(event -> {
-                new GuiLootableEditor(lootManager, lootable, player, gui);
-            }));
-        }
     }
 
     public ItemStack getIcon(String key) {
@@ -3,6 +3,7 @@ package com.songoda.core.lootables.gui;
 import com.cryptomorin.xseries.XMaterial;
 import com.songoda.core.SongodaCore;
 import com.songoda.core.gui.Gui;
+import com.songoda.core.gui.GuiNavigator;
 import com.songoda.core.gui.builder.item.ItemBuilder;
 import com.songoda.core.lootables.loot.Loot;
 import net.kyori.adventure.text.Component;
@@ -36,7 +37,7 @@ public class GuiEnchantEditor {
         Map<String, Integer> lore = loot.getEnchants() == null ? new HashMap<>() : new HashMap<>(loot.getEnchants());
 
         gui.setItem(Arrays.asList(2, 6), ItemBuilder.from(XMaterial.OAK_DOOR.parseItem()).name(Component.text("Back", NamedTextColor.RED)).asGuiItem(event -> {
-            returnGui.open(player);
+            back();
         }));
 
         gui.setItem(3, ItemBuilder.from(XMaterial.ARROW.parseItem()).name(Component.text("Add new enchantment", NamedTextColor.GREEN)).asGuiItem(event -> {
@@ -62,12 +63,12 @@ public class GuiEnchantEditor {
                                             player.closeInventory();
 
                                             return AnvilGUI.Response.close();
-                                        }).onClose(player -> paint());
+                                        }).onClose(player -> paint()).open(player);
                             }
                         }.runTaskLater(SongodaCore.getInstance(), 1l);
 
                         return AnvilGUI.Response.close();
-                    }).onClose(player -> paint());
+                    }).onClose(player -> paint()).open(player);
         }));
 
         List<Component> enchantments = new ArrayList<>();
@@ -91,5 +92,17 @@ public class GuiEnchantEditor {
                     loot.setEnchants(lore);
                     paint();
                 }));
+
+        gui.update();
+    }
+
+    public Gui getGui() {
+        return gui;
+    }
+
+    private void back() {
+        if (!GuiNavigator.of(player).back()) {
+            returnGui.open(player);
+        }
     }
 }
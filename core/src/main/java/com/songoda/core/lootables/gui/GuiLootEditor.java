@@ -4,6 +4,8 @@ import com.cryptomorin.xseries.XMaterial;
 import com.songoda.core.SongodaCore;
 import com.songoda.core.compatibility.CompatibleHand;
 import com.songoda.core.gui.Gui;
+import com.songoda.core.gui.GuiNavigator;
+import com.songoda.core.gui.LazyGui;
 import com.songoda.core.gui.builder.item.ItemBuilder;
 import com.songoda.core.lootables.loot.Loot;
 import com.songoda.core.lootables.loot.LootBuilder;
@@ -25,6 +27,12 @@ public class GuiLootEditor {
     private final Gui returnGui;
     private final Gui gui;
 
+    // Sub editors are only built once navigated to
+    private final LazyGui loreEditor;
+    private final LazyGui enchantEditor;
+    private final LazyGui entityEditor;
+    private final Map<Loot, LazyGui> childEditors = new HashMap<>();
+
     public GuiLootEditor(LootManager lootManager, Loot loot, Player player, Gui returnGui) {
         this.lootManager = lootManager;
         this.loot = loot;
@@ -36,12 +44,23 @@ public class GuiLootEditor {
                 .disableAllInteractions()
                 .create();
 
-        paint();
+        this.loreEditor = LazyGui.of(() -> new GuiLoreEditor(loot, player, gui).getGui());
+        this.enchantEditor = LazyGui.of(() -> new GuiEnchantEditor(loot, player, gui).getGui());
+        this.entityEditor = LazyGui.of(() -> new GuiEntityEditor(loot, player, gui).getGui());
+
+        // Painted on every open so going back from a sub editor shows its changes
+        this.gui.setOpenGuiAction(event -> paint());
+    }
+
+    public Gui getGui() {
+        return gui;
     }
 
     public void paint() {
         gui.setItem(8, ItemBuilder.from(XMaterial.OAK_DOOR.parseItem()).name(Component.text("Back", NamedTextColor.RED)).asGuiItem(event -> {
-            returnGui.open(player);
+            if (!GuiNavigator.of(player).back()) {
+                returnGui.open(player);
+            }
         }));
 
         gui.setItem(9, ItemBuilder.from((loot.getMaterial() == null ? XMaterial.BARRIER : loot.getMaterial()).parseItem())
@@ -71,7 +90,7 @@ public class GuiLootEditor {
 
         gui.setItem(11, ItemBuilder.from(XMaterial.WRITABLE_BOOK.parseItem()).name(Component.text("Lore Override:", NamedTextColor.GRAY))
                 .lore(loot.getLore() == null ? Collections.singletonList(Component.text("None set", NamedTextColor.GOLD)) : loot.getLore()).asGuiItem(event -> {
-                    new GuiLoreEditor(loot, player, gui);
+                    GuiNavigator.of(player).open(loreEditor);
                 }));
 
         List<Component> enchantments = new ArrayList<>();
@@ -84,7 +103,7 @@ public class GuiLootEditor {
 
         gui.setItem(12, ItemBuilder.from(XMaterial.ENCHANTED_BOOK.parseItem()).name(Component.text("Enchantments:", NamedTextColor.GRAY))
                 .lore(enchantments.isEmpty() ? Collections.singletonList(Component.text("None set", NamedTextColor.GOLD)) : enchantments).asGuiItem(event -> {
-                    new GuiEnchantEditor(loot, player, gui);
+                    GuiNavigator.of(player).open(enchantEditor);
                 }));
 
         gui.setItem(13, ItemBuilder.from((loot.getBurnedMaterial() == null ? XMaterial.FIRE_CHARGE : loot.getBurnedMaterial()).parseItem())
@@ -210,7 +229,7 @@ public class GuiLootEditor {
 
         gui.setItem(22, ItemBuilder.from(XMaterial.SPAWNER.parseItem()).name(Component.text("Only Drop For:", NamedTextColor.GRAY))
                 .lore(entities.isEmpty() ? Collections.singletonList(Component.text("None set", NamedTextColor.GOLD)) : entities).asGuiItem(event -> {
-                    new GuiEntityEditor(loot, player, gui);
+                    GuiNavigator.of(player).open(entityEditor);
                 }));
 
         gui.setItem(4, 0, ItemBuilder.from(XMaterial.LIME_DYE.parseItem())
@@ -240,14 +259,23 @@ public class GuiLootEditor {
                     .lore(Component.text("Left click", NamedTextColor.GOLD).append(Component.text(" to edit", NamedTextColor.GRAY)),
                             Component.text("Right click", NamedTextColor.GOLD).append(Component.text(" to destroy", NamedTextColor.GRAY)))).asGuiItem(event -> {
                 if (event.getClick() == ClickType.LEFT) {
-                    new GuiLootEditor(lootManager, loot, player, gui);
+                    GuiNavigator.of(player).open(childEditors.computeIfAbsent(loot,
+                            child -> LazyGui.of(() -> new GuiLootEditor(lootManager, child, player, gui).getGui())));
                 }else if (event.getClick() == ClickType.RIGHT) {
                     this.loot.removeChildLoot(loot);
+                    childEditors.remove(loot);
                     paint();
                 }
             }));
 
             ++i;
         }
+
+        // Clears the slot of removed child loot
+        for (; i < 9 * 6; ++i) {
+            gui.removeItem(i);
+        }
+
+        gui.update();
     }
 }
@@ -3,6 +3,8 @@ package com.songoda.core.lootables.gui;
 import com.cryptomorin.xseries.XMaterial;
 import com.songoda.core.SongodaCore;
 import com.songoda.core.gui.Gui;
+import com.songoda.core.gui.GuiNavigator;
+import com.songoda.core.gui.LazyGui;
 import com.songoda.core.gui.PaginatedGui;
 import com.songoda.core.gui.builder.item.ItemBuilder;
 import com.songoda.core.lootables.loot.Loot;
@@ -15,6 +17,8 @@ import net.wesjd.anvilgui.AnvilGUI;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public class GuiLootableEditor {
@@ -24,6 +28,9 @@ public class GuiLootableEditor {
     private final PaginatedGui returnGui;
     private final Gui gui;
 
+    // Loot editors are only built once navigated to
+    private final Map<Loot, LazyGui> lootEditors = new HashMap<>();
+
     public GuiLootableEditor(LootManager lootManager, Lootable lootable, Player player, PaginatedGui returnGui) {
         this.lootManager = lootManager;
         this.lootable = lootable;
@@ -35,11 +42,16 @@ public class GuiLootableEditor {
                 .disableAllInteractions()
                 .create();
 
-        open();
+        this.gui.setCloseGuiAction(event -> lootManager.saveLootablesAsync());
+        // Painted on every open so going back from a loot editor shows its changes
+        this.gui.setOpenGuiAction(event -> paint());
+    }
+
+    public Gui getGui() {
+        return gui;
     }
 
-    private void open() {
-        gui.setCloseGuiAction(event -> lootManager.saveLootables(false));
+    private void paint() {
         gui.setItem(0, ItemBuilder.from(XMaterial.LIME_DYE.parseItem()).name(Component.text("Create new Loot", NamedTextColor.GREEN)).asGuiItem(event -> {
             new AnvilGUI.Builder()
                     .title("Enter a material")
@@ -54,11 +66,13 @@ public class GuiLootableEditor {
                         }
 
                         return AnvilGUI.Response.close();
-                    }).onClose(player -> new GuiLootableEditor(lootManager, lootable, player, returnGui)).open(player);
+                    }).onClose(player -> paint()).open(player);
         }));
 
         gui.setItem(8, ItemBuilder.from(XMaterial.OAK_DOOR.parseItem()).name(Component.text("Back", NamedTextColor.RED)).asGuiItem(event -> {
-            returnGui.open(player);
+            if (!GuiNavigator.of(player).back()) {
+                returnGui.open(player);
+            }
         }));
 
         int i = 9;
@@ -67,17 +81,26 @@ public class GuiLootableEditor {
                     .lore(Component.text("Left click", NamedTextColor.GOLD).append(Component.text(" to edit", NamedTextColor.GRAY)),
                             Component.text("Right click", NamedTextColor.GOLD).append(Component.text(" to destroy", NamedTextColor.GRAY)))).asGuiItem(event -> {
                            if (event.getClick() == ClickType.LEFT) {
-                               // TODO gui loot editor
+                               GuiNavigator.of(player).open(lootEditors.computeIfAbsent(loot,
+                                       key -> LazyGui.of(() -> new GuiLootEditor(lootManager, key, player, gui).getGui())));
                                return;
                            }
 
                            if (event.getClick() == ClickType.RIGHT) {
                                lootable.removeLoot(loot);
-                               new GuiLootableEditor(lootManager, lootable, player, returnGui);
+                               lootEditors.remove(loot);
+                               paint();
                            }
             }));
 
             i++;
         }
+
+        // Clears the slot of removed loot
+        for (; i < 9 * 6; i++) {
+            gui.removeItem(i);
+        }
+
+        gui.update();
     }
 }
@@ -0,0 +1,143 @@
+package com.songoda.core.lootables.loot;
+
+/**
+ * Weighted index sampling in constant time, using Vose's alias method.
+ */
+final class AliasTable {
+    private final double[] weights;
+    private final double totalWeight;
+    private final int positiveCount;
+
+    // Probability of keeping a column's own index, otherwise its alias is picked.
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(double[] weights, double totalWeight, int positiveCount) {
+        int size = weights.length;
+
+        this.weights = weights;
+        this.totalWeight = totalWeight;
+        this.positiveCount = positiveCount;
+        this.probability = new double[size];
+        this.alias = new int[size];
+
+        double[] scaled = new double[size];
+        int[] small = new int[size];
+        int[] large = new int[size];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights[i] * size / totalWeight;
+
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever is left is only off by rounding errors
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1;
+        }
+
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * Builds a table for the given weights, negative weights count as 0.
+     *
+     * @param weights The weight of every index.
+     * @return The table or null if no weight is positive.
+     */
+    static AliasTable of(double[] weights) {
+        double[] copy = new double[weights.length];
+        double totalWeight = 0;
+        int positiveCount = 0;
+
+        for (int i = 0; i < weights.length; i++) {
+            copy[i] = weights[i] > 0 ? weights[i] : 0;
+
+            if (copy[i] > 0) {
+                totalWeight += copy[i];
+                positiveCount++;
+            }
+        }
+
+        return positiveCount == 0 ? null : new AliasTable(copy, totalWeight, positiveCount);
+    }
+
+    int sample(LootRandom random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Samples distinct indices, each with a probability proportional to its weight among the ones not picked yet.
+     *
+     * @param count  The amount of indices to pick, capped to the amount of positive weights.
+     * @param random The source of randomness.
+     * @return The picked indices.
+     */
+    int[] sampleDistinct(int count, LootRandom random) {
+        int[] picks = new int[Math.max(0, Math.min(count, positiveCount))];
+        boolean[] picked = new boolean[weights.length];
+        double pickedWeight = 0;
+
+        for (int i = 0; i < picks.length; i++) {
+            int index;
+
+            if (pickedWeight < totalWeight / 2) {
+                // At least half of the weight is still available, so this takes two draws on average
+                do {
+                    index = sample(random);
+                } while (picked[index]);
+            } else {
+                index = sampleRemaining(picked, totalWeight - pickedWeight, random);
+            }
+
+            picked[index] = true;
+            pickedWeight += weights[index];
+            picks[i] = index;
+        }
+
+        return picks;
+    }
+
+    private int sampleRemaining(boolean[] picked, double remainingWeight, LootRandom random) {
+        double target = random.nextDouble() * remainingWeight;
+        int last = -1;
+
+        for (int i = 0; i < weights.length; i++) {
+            if (picked[i] || weights[i] <= 0) continue;
+
+            last = i;
+            target -= weights[i];
+
+            if (target < 0) {
+                return i;
+            }
+        }
+
+        return last;
+    }
+}
@@ -0,0 +1,23 @@
+package com.songoda.core.lootables.loot;
+
+/**
+ * How the child loot of a {@link Loot} is picked.
+ */
+public enum ChildLootSelection {
+    /**
+     * Shuffles the children and rolls their own chances until enough of them dropped.
+     */
+    SHUFFLE,
+
+    /**
+     * Draws children by their weight, a child can be drawn several times.
+     * Drawn children skip their own chance roll, their entity and charge requirements still apply.
+     */
+    WEIGHTED,
+
+    /**
+     * Draws children by their weight, every child at most once.
+     * Drawn children skip their own chance roll, their entity and charge requirements still apply.
+     */
+    WEIGHTED_UNIQUE
+}
@@ -0,0 +1,561 @@
+package com.songoda.core.lootables.loot;
+
+import com.cryptomorin.xseries.XMaterial;
+import com.songoda.core.gui.builder.item.ItemBuilder;
+import com.songoda.core.math.Eval;
+import com.songoda.core.utils.ItemUtils;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.EntityType;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable evaluation plan of a {@link Loot}.
+ * Materials, names, lore and enchantments are resolved once so rolling the loot
+ * only takes arithmetic and cloning the prebuilt item templates.
+ * The item templates are built on the first created item, rolling without creating items works without a server.
+ * Obtained through {@link Loot#compile()}, which caches it until the loot is edited.
+ */
+public final class CompiledLoot {
+    private static final Loot[] NO_CHILDREN = new Loot[0];
+
+    // Highest enchantment level a chance override can be set for.
+    private static final int MAX_OVERRIDE_LEVEL = 1024;
+
+    /**
+     * Variables usable in loot formulas, in the order {@link LootContext} passes their values.
+     * The level of the looting enchantment, the killer's xp level and the amount of entities killed at once.
+     */
+    static final String[] FORMULA_VARIABLES = {"looting", "player_level", "stack_size"};
+
+    // The loot this plan was compiled from.
+    private final Loot source;
+
+    // Command ran for this drop.
+    private final String command;
+
+    // Xp for this drop.
+    private final int xp;
+
+    // Material of the dropped item, null if no item drops.
+    private final XMaterial material;
+
+    // Material used if the entity died on fire.
+    private final XMaterial burnedMaterial;
+
+    // Level of the random enchantments, 0 if there are none.
+    private final int randomEnchantLevel;
+
+    // Fixed enchantments by name.
+    private final Map<String, Integer> enchantNames;
+
+    // Item templates with the parsed name and lore, only built once needed so compiling doesn't need a running server.
+    private volatile Templates templates;
+
+    // Should dropped items be damaged?
+    private final boolean damaged;
+
+    // Chance that this drop will take place.
+    private final double chance;
+
+    // The looting chance increase, null if looting adds a flat bonus.
+    private final Double lootingIncrease;
+
+    // Enchantments of the wield item that override the chance, by name.
+    private final String[] overrideEnchants;
+
+    // Chance overrides per enchantment, indexed by level, NaN where no override applies.
+    private final double[][] overrideChances;
+
+    // Amount range of this drop.
+    private final int min;
+    private final int max;
+
+    // Formulas replacing the chance and amount range, null if unset or invalid.
+    private final Eval.Expression chanceFormula;
+    private final Eval.Expression minFormula;
+    private final Eval.Expression maxFormula;
+    private final boolean allowLootingEnchant;
+
+    // Entities this drop is applicable for, null for all of them.
+    private final Set<EntityType> onlyDropFor;
+
+    // Should the entity be charged?
+    private final boolean requireCharged;
+
+    // Child drops, compiled through their own cache when rolled.
+    private final Loot[] children;
+    private final int childDropCountMin;
+    private final int childDropCountMax;
+    private final boolean hasChildDropCount;
+
+    // How child drops are picked, with the weights of the children if they're drawn.
+    private final ChildLootSelection childLootSelection;
+    private final AliasTable childTable;
+
+    CompiledLoot(Loot loot) {
+        this.source = loot;
+        this.command = loot.getCommand();
+        this.xp = loot.getXp();
+
+        Map<String, Integer> enchantNames = new HashMap<>();
+        int randomEnchantLevel = 0;
+
+        if (loot.getEnchants() != null) {
+            for (Map.Entry<String, Integer> entry : loot.getEnchants().entrySet()) {
+                if (entry.getValue() == null) continue;
+
+                if (entry.getKey().equalsIgnoreCase("RANDOM")) {
+                    randomEnchantLevel = entry.getValue();
+                    continue;
+                }
+
+                enchantNames.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        this.randomEnchantLevel = randomEnchantLevel;
+        this.enchantNames = enchantNames;
+
+        this.material = loot.getMaterial();
+        this.burnedMaterial = loot.getBurnedMaterial();
+
+        this.damaged = loot.getDamageMax() != 0 && loot.getDamageMin() != 0;
+
+        this.chance = loot.getChance();
+        this.lootingIncrease = loot.getLootingIncrease();
+
+        // Overrides keyed by "ENCHANTMENT:level" are split up so rolling needs no string building
+        Map<String, double[]> overrides = new HashMap<>();
+        if (loot.getEnchantChances() != null) {
+            for (Map.Entry<String, Double> entry : loot.getEnchantChances().entrySet()) {
+                int separator = entry.getKey().lastIndexOf(':');
+
+                if (entry.getValue() == null || separator == -1) continue;
+
+                int level;
+                try {
+                    level = Integer.parseInt(entry.getKey().substring(separator + 1).trim());
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+
+                if (level < 0 || level > MAX_OVERRIDE_LEVEL) continue;
+
+                String enchant = entry.getKey().substring(0, separator);
+                double[] chances = overrides.get(enchant);
+
+                if (chances == null || chances.length <= level) {
+                    int oldLength = chances == null ? 0 : chances.length;
+                    chances = chances == null ? new double[level + 1] : Arrays.copyOf(chances, level + 1);
+                    Arrays.fill(chances, oldLength, chances.length, Double.NaN);
+                    overrides.put(enchant, chances);
+                }
+
+                chances[level] = entry.getValue();
+            }
+        }
+
+        this.overrideEnchants = overrides.keySet().toArray(new String[0]);
+        this.overrideChances = new double[overrideEnchants.length][];
+        for (int i = 0; i < overrideEnchants.length; i++) {
+            this.overrideChances[i] = overrides.get(overrideEnchants[i]);
+        }
+
+        this.min = loot.getMin();
+        this.max = loot.getMax();
+
+        this.chanceFormula = compileFormula(loot, loot.getChanceFormula(), "Chance");
+        this.minFormula = compileFormula(loot, loot.getMinFormula(), "Min");
+        this.maxFormula = compileFormula(loot, loot.getMaxFormula(), "Max");
+        this.allowLootingEnchant = loot.isAllowLootingEnchant();
+
+        List<EntityType> onlyDropFor = loot.getOnlyDropFor();
+        this.onlyDropFor = onlyDropFor.isEmpty() ? null : EnumSet.copyOf(onlyDropFor);
+        this.requireCharged = loot.isRequireCharged();
+
+        List<Loot> children = loot.getChildLoot().stream().filter(child -> child != null).collect(Collectors.toList());
+        this.children = children.isEmpty() ? NO_CHILDREN : children.toArray(new Loot[0]);
+        this.hasChildDropCount = loot.getChildDropCountMin() != null && loot.getChildDropCountMax() != null;
+        this.childDropCountMin = hasChildDropCount ? loot.getChildDropCountMin() : 0;
+        this.childDropCountMax = hasChildDropCount ? loot.getChildDropCountMax() : 0;
+
+        double[] weights = new double[this.children.length];
+        for (int i = 0; i < weights.length; i++) {
+            this.children[i].setParent(loot);
+            weights[i] = this.children[i].getWeight();
+        }
+
+        this.childLootSelection = loot.getChildLootSelection();
+        this.childTable = childLootSelection == ChildLootSelection.SHUFFLE ? null : AliasTable.of(weights);
+    }
+
+    private static Eval.Expression compileFormula(Loot loot, String formula, String field) {
+        if (formula == null || formula.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return new Eval(formula.toLowerCase(), "Invalid loot " + field + " Formula:").compile(FORMULA_VARIABLES);
+        } catch (RuntimeException ex) {
+            // Falls back to the fixed value
+            Lootable owner = loot.getOwner();
+            new IllegalArgumentException("Invalid " + field + " Formula '" + formula + "' in lootable "
+                    + (owner == null ? "<unregistered>" : owner.getKey()) + ", using the fixed value instead", ex).printStackTrace();
+            return null;
+        }
+    }
+
+    private Templates getTemplates() {
+        Templates templates = this.templates;
+
+        if (templates == null) {
+            templates = new Templates(this);
+            this.templates = templates;
+        }
+
+        return templates;
+    }
+
+    public Loot getSource() {
+        return source;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public int getXp() {
+        return xp;
+    }
+
+    public boolean hasItem() {
+        return material != null;
+    }
+
+    /**
+     * Gets the material of the dropped item.
+     *
+     * @param burning Did the entity die on fire?
+     * @return The material or null if this loot drops no item.
+     */
+    public XMaterial getItemMaterial(boolean burning) {
+        return burning && burnedMaterial != null && material != null ? burnedMaterial : material;
+    }
+
+    /**
+     * Checks whether every created item is rolled separately, because of random enchantments or damage.
+     *
+     * @return True if items of this drop can differ from each other.
+     */
+    public boolean hasVaryingItem() {
+        return material != null && (randomEnchantLevel != 0 || damaged);
+    }
+
+    public boolean canDropFor(EntityType looter, boolean isCharged) {
+        if (onlyDropFor != null && (looter == null || !onlyDropFor.contains(looter))) {
+            return false;
+        }
+
+        return isCharged || !requireCharged;
+    }
+
+    public boolean rollChance(int looting, Map<String, Integer> weaponEnchantments, LootRandom random) {
+        return rollChance(looting, weaponEnchantments, 1, random);
+    }
+
+    /**
+     * Rolls the chance of this drop.
+     *
+     * @param looting            Level of the looting enchantment.
+     * @param weaponEnchantments Levels of the enchantments on the murder weapon, by name.
+     * @param multiplier         Factor the chance is multiplied with, before the looting bonus is added.
+     * @param random             The source of randomness.
+     * @return True if the drop takes place.
+     */
+    public boolean rollChance(int looting, Map<String, Integer> weaponEnchantments, double multiplier, LootRandom random) {
+        return rollChance(this.chance, looting, weaponEnchantments, multiplier, random);
+    }
+
+    /**
+     * Rolls the chance of this drop, evaluating its chance formula if it has one.
+     */
+    boolean rollChance(LootContext context, double multiplier) {
+        double chance = chanceFormula == null ? this.chance : chanceFormula.evaluate(context.getFormulaVariables());
+        return rollChance(chance, context.getLooting(), context.getWeaponEnchantments(), multiplier, context.getRandom());
+    }
+
+    private boolean rollChance(double baseChance, int looting, Map<String, Integer> weaponEnchantments, double multiplier, LootRandom random) {
+        double chance = getChance(baseChance, weaponEnchantments) * multiplier;
+
+        return chance == 100 || (random.nextDouble() * 100) - (chance + getChanceBonus(looting)) < 0;
+    }
+
+    /**
+     * Gets the probability of a single {@link #rollChance(int, Map, LootRandom)} to succeed.
+     *
+     * @param looting            Level of the looting enchantment.
+     * @param weaponEnchantments Levels of the enchantments on the murder weapon, by name.
+     * @return The probability between 0 and 1.
+     */
+    public double getChanceProbability(int looting, Map<String, Integer> weaponEnchantments) {
+        return getChanceProbability(looting, weaponEnchantments, 1);
+    }
+
+    public double getChanceProbability(int looting, Map<String, Integer> weaponEnchantments, double multiplier) {
+        return getChanceProbability(this.chance, looting, weaponEnchantments, multiplier);
+    }
+
+    double getChanceProbability(LootContext context, double multiplier) {
+        double chance = chanceFormula == null ? this.chance : chanceFormula.evaluate(context.getFormulaVariables());
+        return getChanceProbability(chance, context.getLooting(), context.getWeaponEnchantments(), multiplier);
+    }
+
+    private double getChanceProbability(double baseChance, int looting, Map<String, Integer> weaponEnchantments, double multiplier) {
+        double chance = getChance(baseChance, weaponEnchantments) * multiplier;
+
+        if (chance == 100) {
+            return 1;
+        }
+
+        return Math.max(0, Math.min(1, (chance + getChanceBonus(looting)) / 100));
+    }
+
+    private double getChance(double baseChance, Map<String, Integer> weaponEnchantments) {
+        double chance = baseChance;
+
+        if (overrideEnchants.length != 0 && !weaponEnchantments.isEmpty()) {
+            for (int i = 0; i < overrideEnchants.length; i++) {
+                Integer level = weaponEnchantments.get(overrideEnchants[i]);
+
+                if (level == null || level < 0 || level >= overrideChances[i].length) continue;
+
+                // NaN never compares greater
+                double override = overrideChances[i][level];
+                if (override > chance) {
+                    chance = override;
+                }
+            }
+        }
+
+        return chance;
+    }
+
+    private double getChanceBonus(int looting) {
+        return lootingIncrease == null ? 1 : lootingIncrease * looting;
+    }
+
+    public int rollAmount(int looting, LootRandom random) {
+        int bonus = allowLootingEnchant ? looting : 0;
+        return min == max ? (max + bonus) : random.nextInt((max + bonus) - min + 1) + min;
+    }
+
+    /**
+     * Rolls the total amount of several drops at once.
+     *
+     * @param drops   The amount of drops.
+     * @param looting Level of the looting enchantment.
+     * @param random  The source of randomness.
+     * @return The summed amount of every drop.
+     */
+    public long rollAmountSum(int drops, int looting, LootRandom random) {
+        int bonus = allowLootingEnchant ? looting : 0;
+        return min == max ? (long) drops * (max + bonus) : LootSampling.uniformSum(drops, min, max + bonus, random);
+    }
+
+    /**
+     * Rolls the amount of this drop, evaluating its amount formulas if it has any.
+     */
+    int rollAmount(LootContext context) {
+        if (minFormula == null && maxFormula == null) {
+            return rollAmount(context.getLooting(), context.getRandom());
+        }
+
+        double[] variables = context.getFormulaVariables();
+        int min = minFormula == null ? this.min : (int) Math.round(minFormula.evaluate(variables));
+        int max = Math.max(min, maxFormula == null ? this.max : (int) Math.round(maxFormula.evaluate(variables)));
+        int bonus = allowLootingEnchant ? context.getLooting() : 0;
+
+        return min == max ? (max + bonus) : context.getRandom().nextInt((max + bonus) - min + 1) + min;
+    }
+
+    long rollAmountSum(int drops, LootContext context) {
+        if (minFormula == null && maxFormula == null) {
+            return rollAmountSum(drops, context.getLooting(), context.getRandom());
+        }
+
+        double[] variables = context.getFormulaVariables();
+        int min = minFormula == null ? this.min : (int) Math.round(minFormula.evaluate(variables));
+        int max = Math.max(min, maxFormula == null ? this.max : (int) Math.round(maxFormula.evaluate(variables)));
+        int bonus = allowLootingEnchant ? context.getLooting() : 0;
+
+        return min == max ? (long) drops * (max + bonus) : LootSampling.uniformSum(drops, min, max + bonus, context.getRandom());
+    }
+
+    public int rollChildDropCount(LootRandom random) {
+        if (!hasChildDropCount) {
+            return 0;
+        }
+
+        return random.nextInt(childDropCountMax - childDropCountMin + 1) + childDropCountMin;
+    }
+
+    /**
+     * Creates a new item of this drop, with a stack size of one.
+     *
+     * @param burning Did the entity die on fire?
+     * @param random  The source of randomness.
+     * @return The item or null if this loot drops no item.
+     */
+    public ItemStack createItem(boolean burning, LootRandom random) {
+        if (material == null) {
+            return null;
+        }
+
+        Templates templates = getTemplates();
+        ItemStack item = (burning ? templates.burnedTemplate : templates.template).clone();
+
+        // Fixed enchantments can only be baked in when no random ones have to be rolled first
+        if (randomEnchantLevel != 0) {
+            item = applyEnchants(item, random);
+        }
+
+        if (damaged) {
+            short max = item.getType().getMaxDurability();
+            short min = (short) (max * (10 / 100.0f));
+
+            item.setDurability((short) (random.nextInt(max - min + 1) + min));
+        }
+
+        return item;
+    }
+
+    /**
+     * Applies the random and fixed enchantments of this drop to an item.
+     *
+     * @param item   The item to enchant.
+     * @param random The source of randomness for the random enchantments.
+     * @return The enchanted item, a new instance if random enchantments were applied.
+     */
+    public ItemStack applyEnchants(ItemStack item, LootRandom random) {
+        if (randomEnchantLevel != 0) {
+            item = ItemUtils.applyRandomEnchants(item, randomEnchantLevel, random.asRandom());
+        }
+
+        item.addEnchantments(getTemplates().enchants);
+        return item;
+    }
+
+    /**
+     * Gets the name override, parsed once.
+     *
+     * @return The name or null if it isn't overridden.
+     */
+    public Component getName() {
+        return getTemplates().name;
+    }
+
+    /**
+     * Gets the lore override, parsed once.
+     *
+     * @return The unmodifiable lore or null if it isn't overridden.
+     */
+    public List<Component> getLore() {
+        return getTemplates().lore;
+    }
+
+    public ChildLootSelection getChildLootSelection() {
+        return childLootSelection;
+    }
+
+    Loot[] getChildren() {
+        return children;
+    }
+
+    AliasTable getChildTable() {
+        return childTable;
+    }
+
+    private static final class Templates {
+        // Parsed name and lore overrides.
+        private final Component name;
+        private final List<Component> lore;
+
+        // Item dropped with its name, lore and, without random ones, fixed enchantments applied, null without material.
+        private final ItemStack template;
+
+        // Item dropped if the entity died on fire.
+        private final ItemStack burnedTemplate;
+
+        // Resolved fixed enchantments.
+        private final Map<Enchantment, Integer> enchants = new HashMap<>();
+
+        private Templates(CompiledLoot loot) {
+            String rawName = loot.source.getRawName();
+            this.name = rawName == null ? null : MiniMessage.miniMessage().deserialize(rawName);
+
+            List<String> rawLore = loot.source.getRawLore();
+            if (rawLore == null) {
+                this.lore = null;
+            } else {
+                List<Component> lore = new ArrayList<>(rawLore.size());
+
+                for (String line : rawLore) {
+                    lore.add(MiniMessage.miniMessage().deserialize(line));
+                }
+
+                this.lore = Collections.unmodifiableList(lore);
+            }
+
+            for (Map.Entry<String, Integer> entry : loot.enchantNames.entrySet()) {
+                Enchantment enchantment = Enchantment.getByName(entry.getKey());
+
+                if (enchantment != null) {
+                    enchants.put(enchantment, entry.getValue());
+                }
+            }
+
+            if (loot.material == null) {
+                this.template = null;
+                this.burnedTemplate = null;
+                return;
+            }
+
+            Map<Enchantment, Integer> baked = loot.randomEnchantLevel == 0 ? enchants : null;
+
+            this.template = buildTemplate(loot.material, baked);
+            this.burnedTemplate = loot.burnedMaterial == null ? this.template : buildTemplate(loot.burnedMaterial, baked);
+        }
+
+        private ItemStack buildTemplate(XMaterial material, Map<Enchantment, Integer> enchants) {
+            ItemBuilder itemBuilder = ItemBuilder.from(material.parseItem());
+
+            if (name != null) {
+                itemBuilder = itemBuilder.name(name);
+            }
+
+            if (lore != null) {
+                itemBuilder = itemBuilder.lore(lore);
+            }
+
+            ItemStack item = itemBuilder.build();
+
+            if (enchants != null) {
+                item.addEnchantments(enchants);
+            }
+
+            return item;
+        }
+    }
+}
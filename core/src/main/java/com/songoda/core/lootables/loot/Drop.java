@@ -7,6 +7,9 @@ public class Drop {
 
     private String command;
 
+    // How often the command runs.
+    private int amount = 1;
+
     private int xp;
 
     public Drop(ItemStack itemStack) {
@@ -17,6 +20,11 @@ public class Drop {
         this.command = command;
     }
 
+    public Drop(String command, int amount) {
+        this.command = command;
+        this.amount = amount;
+    }
+
     public Drop(int xp) {
         this.xp = xp;
     }
@@ -29,6 +37,14 @@ public class Drop {
         this.command = command;
     }
 
+    public int getAmount() {
+        return amount;
+    }
+
+    public void setAmount(int amount) {
+        this.amount = amount;
+    }
+
     public int getXp() {
         return xp;
     }
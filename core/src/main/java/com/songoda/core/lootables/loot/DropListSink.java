@@ -0,0 +1,40 @@
+package com.songoda.core.lootables.loot;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns rolled loot into {@link Drop}s.
+ */
+final class DropListSink implements DropSink {
+    private final List<Drop> drops = new ArrayList<>();
+
+    @Override
+    public void item(CompiledLoot loot, LootContext context, long amount) {
+        ItemStack item = loot.createItem(context.isBurning(), context.getRandom());
+        int maxStackSize = Math.max(1, item.getMaxStackSize());
+
+        // Oversized amounts are split into full stacks
+        for (long left = amount; left > 0; left -= maxStackSize) {
+            ItemStack stack = left == amount && amount <= maxStackSize ? item : item.clone();
+            stack.setAmount((int) Math.min(left, maxStackSize));
+            drops.add(new Drop(stack));
+        }
+    }
+
+    @Override
+    public void command(String command, long amount) {
+        drops.add(new Drop(command, (int) Math.min(Integer.MAX_VALUE, amount)));
+    }
+
+    @Override
+    public void xp(int xp, long amount) {
+        drops.add(new Drop((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, xp * amount))));
+    }
+
+    List<Drop> getDrops() {
+        return drops;
+    }
+}
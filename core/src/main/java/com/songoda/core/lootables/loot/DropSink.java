@@ -0,0 +1,35 @@
+package com.songoda.core.lootables.loot;
+
+/**
+ * Receives the outcome of rolling loot, as it's rolled.
+ * Lets callers consume drops without the engine collecting them into lists of {@link Drop}s first.
+ *
+ * @see LootManager#runLoot(Lootable, LootContext, DropSink)
+ */
+public interface DropSink {
+    /**
+     * Called for every dropped item.
+     * Use {@link CompiledLoot#createItem(boolean, LootRandom)} to create the item if it's needed.
+     *
+     * @param loot    The loot whose item dropped.
+     * @param context The context the loot was rolled in.
+     * @param amount  The amount of items, all rolled at once so they share enchantments and damage.
+     */
+    void item(CompiledLoot loot, LootContext context, long amount);
+
+    /**
+     * Called for every dropped command.
+     *
+     * @param command The command, placeholders aren't filled in.
+     * @param amount  How often the command dropped.
+     */
+    void command(String command, long amount);
+
+    /**
+     * Called for every xp drop.
+     *
+     * @param xp     The xp of a single drop.
+     * @param amount How often the xp dropped.
+     */
+    void xp(int xp, long amount);
+}
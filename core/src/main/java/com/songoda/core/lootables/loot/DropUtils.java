@@ -1,82 +1,123 @@
 package com.songoda.core.lootables.loot;
 
-import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 public class DropUtils {
     public static void processStackedDrop(LivingEntity entity, List<Drop> drops, EntityDeathEvent event) {
         int xpToDrop = event.getDroppedExp();
-        List<ItemStack> items = new ArrayList<>();
-        List<String> commands = new ArrayList<>();
-        List<Integer> xp = new ArrayList<>();
+        Map<ItemKey, ItemTotal> items = new LinkedHashMap<>();
+        Map<String, Integer> commands = new LinkedHashMap<>();
+        long xp = 0;
 
         for (Drop drop : drops) {
             if (drop == null) continue;
 
             ItemStack droppedItem = drop.getItemStack();
-            if (droppedItem != null) {
-                droppedItem = droppedItem.clone();
-                boolean success = false;
-
-                for (ItemStack item : items) {
-                    if (item.getType() != droppedItem.getType()
-                            || item.getDurability() != droppedItem.getDurability()
-                            || item.getAmount() + droppedItem.getAmount() > droppedItem.getMaxStackSize()) continue;
-                    item.setAmount(item.getAmount() + droppedItem.getAmount());
-                    success = true;
-
-                    break;
-                }
-
-                if (!success) {
-                    items.add(droppedItem);
-                }
+            if (droppedItem != null && droppedItem.getAmount() > 0) {
+                // Similar items are summed up and only turned into stacks once every drop was counted
+                ItemTotal total = items.computeIfAbsent(new ItemKey(droppedItem), key -> new ItemTotal(droppedItem));
+                total.amount += droppedItem.getAmount();
             }
 
-            if (drop.getCommand() != null) {
-                commands.add(drop.getCommand());
+            if (drop.getCommand() != null && drop.getAmount() > 0) {
+                commands.merge(drop.getCommand(), drop.getAmount(), (a, b) -> (int) Math.min(Integer.MAX_VALUE, (long) a + b));
             }
 
-            if (drop.getXp() != 0) {
-                xp.add(drop.getXp());
-            }
+            xp += drop.getXp();
         }
 
         event.getDrops().clear();
 
         if (!items.isEmpty()) {
-            dropItems(items, event);
-        } else if (!commands.isEmpty()) {
-            runCommands(entity, commands);
+            dropItems(items.values(), event);
         }
 
-        for (int x : xp) {
-            xpToDrop += x;
+        if (!commands.isEmpty()) {
+            runCommands(entity, commands);
         }
 
-        event.setDroppedExp(xpToDrop);
+        event.setDroppedExp((int) Math.max(0, Math.min(Integer.MAX_VALUE, xpToDrop + xp)));
     }
 
-    private static void dropItems(List<ItemStack> items, EntityDeathEvent event) {
-        for (ItemStack item : items) {
-            event.getDrops().add(item);
+    private static void dropItems(Collection<ItemTotal> items, EntityDeathEvent event) {
+        for (ItemTotal total : items) {
+            int maxStackSize = Math.max(1, total.item.getMaxStackSize());
+
+            for (long left = total.amount; left > 0; left -= maxStackSize) {
+                ItemStack stack = total.item.clone();
+                stack.setAmount((int) Math.min(left, maxStackSize));
+                event.getDrops().add(stack);
+            }
         }
     }
 
-    private static void runCommands(LivingEntity entity, List<String> commands) {
-        for (String command : commands) {
-            if (entity.getKiller() != null) {
-                command = command.replace("%player%", entity.getKiller().getName());
+    private static void runCommands(LivingEntity entity, Map<String, Integer> commands) {
+        String killer = entity.getKiller() == null ? null : entity.getKiller().getName();
+
+        for (Map.Entry<String, Integer> entry : commands.entrySet()) {
+            String command = entry.getKey();
+
+            if (killer != null) {
+                command = command.replace("%player%", killer);
             }
 
             if (!command.contains("%player%")) {
-                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+                LootCommandQueue.submit(command, entry.getValue());
             }
         }
     }
+
+    /**
+     * Identifies items that stack with each other: same type, durability and meta.
+     */
+    private static final class ItemKey {
+        private final Material type;
+        private final short durability;
+        private final ItemMeta meta;
+        private final int hash;
+
+        private ItemKey(ItemStack item) {
+            this.type = item.getType();
+            this.durability = item.getDurability();
+            this.meta = item.hasItemMeta() ? item.getItemMeta() : null;
+            this.hash = 31 * (31 * type.hashCode() + durability) + Objects.hashCode(meta);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof ItemKey)) return false;
+
+            ItemKey other = (ItemKey) obj;
+            return hash == other.hash
+                    && type == other.type
+                    && durability == other.durability
+                    && Objects.equals(meta, other.meta);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class ItemTotal {
+        // First dropped item of its kind, only its type and meta are used.
+        private final ItemStack item;
+        private long amount;
+
+        private ItemTotal(ItemStack item) {
+            this.item = item;
+        }
+    }
 }
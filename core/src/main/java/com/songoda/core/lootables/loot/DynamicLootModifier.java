@@ -0,0 +1,56 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.Set;
+
+/**
+ * Adjusts loot for every roll, based on the context it's rolled in.
+ * Unlike a {@link StaticLootModifier} it can't change the loot itself, only apply lightweight deltas
+ * on top of the cached plan. Only the methods of the declared {@link Field}s are called.
+ */
+public interface DynamicLootModifier {
+    /**
+     * Gets the fields this modifier touches, only asked once when the {@link LootPipeline} is built.
+     *
+     * @return The touched fields.
+     */
+    Set<Field> getFields();
+
+    /**
+     * Gets the factor the loot's chance is multiplied with, called for {@link Field#CHANCE}.
+     *
+     * @param loot    The loot being rolled.
+     * @param context The context it's rolled in.
+     * @return The factor, 1 to leave the chance alone.
+     */
+    default double getChanceMultiplier(CompiledLoot loot, LootContext context) {
+        return 1;
+    }
+
+    /**
+     * Gets the amount added to every drop of the loot, called for {@link Field#AMOUNT}.
+     *
+     * @param loot    The loot being rolled.
+     * @param context The context it's rolled in.
+     * @return The bonus, may be negative.
+     */
+    default int getAmountBonus(CompiledLoot loot, LootContext context) {
+        return 0;
+    }
+
+    /**
+     * Gets the factor the loot's xp is multiplied with, called for {@link Field#XP}.
+     *
+     * @param loot    The loot being rolled.
+     * @param context The context it's rolled in.
+     * @return The factor, 1 to leave the xp alone.
+     */
+    default double getXpMultiplier(CompiledLoot loot, LootContext context) {
+        return 1;
+    }
+
+    enum Field {
+        CHANCE,
+        AMOUNT,
+        XP
+    }
+}
@@ -3,17 +3,26 @@ package com.songoda.core.lootables.loot;
 import com.cryptomorin.xseries.XMaterial;
 import com.google.gson.annotations.SerializedName;
 import com.songoda.core.gui.components.util.LegacySerializer;
-import com.songoda.core.utils.ItemUtils;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 public class Loot {
+    private static final Modified[] NO_MODIFIED = new Modified[0];
+
+    // Most pipelines a loot keeps modified plans for, the least recently compiled one is dropped first.
+    private static final int MAX_MODIFIED = 8;
+
     // Command ran for this drop.
     @SerializedName("Command")
     private String command;
@@ -88,15 +97,135 @@ public class Loot {
     @SerializedName("Child Loot")
     private List<Loot> childLoot;
 
+    // How should child drops be picked?
+    @SerializedName("Child Loot Selection")
+    private ChildLootSelection childLootSelection;
+
+    // Weight of this drop when picked as weighted child loot, defaults to the chance.
+    @SerializedName("Weight")
+    private Double weight;
+
+    // Formulas overriding the chance and amount range, see CompiledLoot.FORMULA_VARIABLES for their variables.
+    @SerializedName("Chance Formula")
+    private String chanceFormula;
+    @SerializedName("Min Formula")
+    private String minFormula;
+    @SerializedName("Max Formula")
+    private String maxFormula;
+
     // Should the entity be charged? (Only works on creepers)
     private boolean requireCharged = false;
 
+    // Evaluation plan, compiled on first use and dropped on every edit.
+    private transient volatile CompiledLoot compiled;
+
+    // The loot whose plan includes this one as a child.
+    private transient volatile Loot parent;
+
+    // The lootable this loot is registered in, marked dirty on every edit.
+    private transient volatile Lootable owner;
+
+    // Evaluation plans with the static modifiers of recently used pipelines applied, newest first, dropped on every edit.
+    private transient volatile Modified[] modified = NO_MODIFIED;
+
+    public CompiledLoot compile() {
+        CompiledLoot compiled = this.compiled;
+
+        if (compiled == null) {
+            compiled = new CompiledLoot(this);
+            this.compiled = compiled;
+        }
+
+        return compiled;
+    }
+
+    CompiledLoot compile(LootPipeline pipeline) {
+        Modified[] modified = this.modified;
+
+        // Pipelines are compared by identity, several of them can be in use for the same loot at once
+        for (Modified entry : modified) {
+            if (entry.pipeline == pipeline) {
+                return entry.compiled;
+            }
+        }
+
+        Loot loot = pipeline.applyStatic(copy());
+        CompiledLoot compiled = loot == null ? null : loot.compile();
+
+        Modified[] updated = new Modified[Math.min(modified.length + 1, MAX_MODIFIED)];
+        updated[0] = new Modified(pipeline, compiled);
+        System.arraycopy(modified, 0, updated, 1, updated.length - 1);
+        this.modified = updated;
+
+        return compiled;
+    }
+
+    /**
+     * Creates a deep copy of this loot, children included.
+     *
+     * @return The copy, not registered anywhere.
+     */
+    public Loot copy() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try {
+            write(new DataOutputStream(bytes));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    Lootable getOwner() {
+        return owner;
+    }
+
+    void setParent(Loot parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Links this loot and its children to the lootable they're registered in.
+     *
+     * @param owner The lootable or null if the loot was removed.
+     */
+    void setOwner(Lootable owner) {
+        this.owner = owner;
+
+        if (childLoot != null) {
+            for (Loot child : childLoot) {
+                if (child != null) {
+                    child.setParent(this);
+                    child.setOwner(owner);
+                }
+            }
+        }
+    }
+
+    private void invalidate() {
+        this.compiled = null;
+        this.modified = NO_MODIFIED;
+
+        Lootable owner = this.owner;
+        if (owner != null) {
+            owner.lootChanged();
+        }
+
+        // The parent's plan holds the weights of its children
+        Loot parent = this.parent;
+        if (parent != null) {
+            parent.invalidate();
+        }
+    }
+
     public XMaterial getMaterial() {
         return material;
     }
 
     public void setMaterial(XMaterial material) {
         this.material = material;
+        invalidate();
     }
 
     public String getCommand() {
@@ -105,6 +234,7 @@ public class Loot {
 
     public void setCommand(String command) {
         this.command = command;
+        invalidate();
     }
 
     public int getXp() {
@@ -113,14 +243,20 @@ public class Loot {
 
     public void setXp(int xp) {
         this.xp = xp;
+        invalidate();
     }
 
     public Component getName() {
-        return MiniMessage.miniMessage().deserialize(name);
+        return name == null ? null : MiniMessage.miniMessage().deserialize(name);
+    }
+
+    public String getRawName() {
+        return name;
     }
 
     public void setName(String name) {
         this.name = name;
+        invalidate();
     }
 
     public List<Component> getLore() {
@@ -147,6 +283,7 @@ public class Loot {
 
     public void setLore(List<String> lore) {
         this.lore = new ArrayList<>(lore);
+        invalidate();
     }
 
     public ItemStack getEnchants(ItemStack item) {
@@ -154,42 +291,34 @@ public class Loot {
             return null;
         }
 
-        Map<Enchantment, Integer> enchants = new HashMap<>();
-        for (Map.Entry<String, Integer> entry : this.enchants.entrySet()) {
-            if (entry.getValue() == null) continue;
-
-            if (entry.getKey().equalsIgnoreCase("RANDOM")) {
-                item = ItemUtils.applyRandomEnchants(item, entry.getValue());
-
-                continue;
-            }
-
-            enchants.put(Enchantment.getByName(entry.getKey()), entry.getValue());
-        }
-
-        item.addEnchantments(enchants);
-
-        return item;
+        return compile().applyEnchants(item, LootRandom.threadLocal());
     }
 
     public void setEnchants(Map<String, Integer> enchants) {
         this.enchants = enchants;
+        invalidate();
     }
 
     public void setEnchantChances(Map<String, Double> enchants) {
         this.enchantChances = enchants;
+        invalidate();
     }
 
     public Map<String, Integer> getEnchants() {
         return enchants == null ? null : Collections.unmodifiableMap(enchants);
     }
 
+    public Map<String, Double> getEnchantChances() {
+        return enchantChances == null ? null : Collections.unmodifiableMap(enchantChances);
+    }
+
     public XMaterial getBurnedMaterial() {
         return burnedMaterial;
     }
 
     public void setBurnedMaterial(XMaterial burnedMaterial) {
         this.burnedMaterial = burnedMaterial;
+        invalidate();
     }
 
     public double getChance() {
@@ -198,29 +327,13 @@ public class Loot {
 
     public void setChance(double chance) {
         this.chance = chance;
+        invalidate();
     }
 
     public boolean runChance(int looting, ItemStack murderWeapon) {
-        double chance = this.chance;
-
-        if (enchantChances != null && murderWeapon != null && enchants != null) {
-            for (Map.Entry<Enchantment, Integer> entry : murderWeapon.getEnchantments().entrySet()) {
-                String key = entry.getKey().getName() + ":" + entry.getValue();
-
-                if (!enchants.containsKey(key)) {
-                    continue;
-                }
-
-                double ch = enchantChances.get(key);
-
-                if (ch > chance) {
-                    chance = enchantChances.get(key);
-                }
-            }
+        try (LootContext context = LootContext.acquire().setMurderWeapon(murderWeapon)) {
+            return compile().rollChance(looting, context.getWeaponEnchantments(), context.getRandom());
         }
-
-        return (Math.random() * 100) - (chance + (lootingIncrease == null ? 1
-                : lootingIncrease * looting)) < 0 || chance == 100;
     }
 
     public int getMin() {
@@ -229,6 +342,7 @@ public class Loot {
 
     public void setMin(int min) {
         this.min = min;
+        invalidate();
     }
 
     public int getMax() {
@@ -237,6 +351,7 @@ public class Loot {
 
     public void setMax(int max) {
         this.max = max;
+        invalidate();
     }
 
     public int getDamageMax() {
@@ -245,6 +360,7 @@ public class Loot {
 
     public void setDamageMax(int damageMax) {
         this.damageMax = damageMax;
+        invalidate();
     }
 
     public int getDamageMin() {
@@ -253,10 +369,11 @@ public class Loot {
 
     public void setDamageMin(int damageMin) {
         this.damageMin = damageMin;
+        invalidate();
     }
 
     public int getAmountToDrop(int looting) {
-        return min == max ? (max + getLooting(looting)) : new Random().nextInt((max + getLooting(looting)) - min + 1) + min;
+        return min == max ? (max + getLooting(looting)) : ThreadLocalRandom.current().nextInt((max + getLooting(looting)) - min + 1) + min;
     }
 
     public int getLooting(int looting) {
@@ -269,10 +386,16 @@ public class Loot {
 
     public void setAllowLootingEnchant(boolean allowLootingEnchant) {
         this.allowLootingEnchant = allowLootingEnchant;
+        invalidate();
+    }
+
+    public Double getLootingIncrease() {
+        return lootingIncrease;
     }
 
     public void setLootingIncrease(double increase) {
         this.lootingIncrease = increase;
+        invalidate();
     }
 
     public void addChildLoots(Loot... loots) {
@@ -284,6 +407,15 @@ public class Loot {
         }
 
         this.childLoot.addAll(Arrays.asList(loots));
+
+        for (Loot loot : loots) {
+            if (loot != null) {
+                loot.setParent(this);
+                loot.setOwner(owner);
+            }
+        }
+
+        invalidate();
     }
 
     public void removeChildLoot(Loot loot) {
@@ -292,6 +424,7 @@ public class Loot {
         }
 
         this.childLoot.remove(loot);
+        invalidate();
     }
 
     public List<Loot> getChildLoot() {
@@ -305,18 +438,22 @@ public class Loot {
     public void addOnlyDropFor(EntityType... types) {
         this.onlyDropFor = new ArrayList<>();
         this.onlyDropFor.addAll(Arrays.asList(types));
+        invalidate();
     }
 
     public void setOnlyDropFor(List<EntityType> types) {
         this.onlyDropFor = types;
+        invalidate();
     }
 
     public void setChildDropCountMin(int childDropCountMin) {
         this.childDropCountMin = childDropCountMin;
+        invalidate();
     }
 
     public void setChildDropCountMax(int childDropCountMax) {
         this.childDropCountMax = childDropCountMax;
+        invalidate();
     }
 
     public Integer getChildDropCountMin() {
@@ -332,7 +469,7 @@ public class Loot {
             return 0;
         }
 
-        return new Random().nextInt(childDropCountMax - childDropCountMin + 1) + childDropCountMin;
+        return ThreadLocalRandom.current().nextInt(childDropCountMax - childDropCountMin + 1) + childDropCountMin;
     }
 
     public boolean isRequireCharged() {
@@ -341,5 +478,213 @@ public class Loot {
 
     public void setRequireCharged(boolean requireCharged) {
         this.requireCharged = requireCharged;
+        invalidate();
+    }
+
+    public ChildLootSelection getChildLootSelection() {
+        return childLootSelection == null ? ChildLootSelection.SHUFFLE : childLootSelection;
+    }
+
+    public void setChildLootSelection(ChildLootSelection childLootSelection) {
+        this.childLootSelection = childLootSelection;
+        invalidate();
+    }
+
+    public double getWeight() {
+        return weight == null ? chance : weight;
+    }
+
+    public void setWeight(double weight) {
+        this.weight = weight;
+        invalidate();
+    }
+
+    public String getChanceFormula() {
+        return chanceFormula;
+    }
+
+    /**
+     * Sets a formula for the chance, like "10 + looting * 2.5", used instead of the fixed chance.
+     *
+     * @param chanceFormula The formula or null to use the fixed chance.
+     */
+    public void setChanceFormula(String chanceFormula) {
+        this.chanceFormula = chanceFormula;
+        invalidate();
+    }
+
+    public String getMinFormula() {
+        return minFormula;
+    }
+
+    public void setMinFormula(String minFormula) {
+        this.minFormula = minFormula;
+        invalidate();
+    }
+
+    public String getMaxFormula() {
+        return maxFormula;
+    }
+
+    public void setMaxFormula(String maxFormula) {
+        this.maxFormula = maxFormula;
+        invalidate();
+    }
+
+    /**
+     * Writes this loot and its children for a {@link LootSnapshot}, keeping unset fields unset.
+     */
+    void write(DataOutputStream out) throws IOException {
+        LootSnapshot.writeString(out, command);
+        out.writeInt(xp);
+        LootSnapshot.writeEnum(out, material);
+        LootSnapshot.writeString(out, name);
+
+        out.writeInt(lore == null ? -1 : lore.size());
+        if (lore != null) {
+            for (String line : lore) {
+                LootSnapshot.writeString(out, line);
+            }
+        }
+
+        out.writeInt(enchants == null ? -1 : enchants.size());
+        if (enchants != null) {
+            for (Map.Entry<String, Integer> entry : enchants.entrySet()) {
+                LootSnapshot.writeString(out, entry.getKey());
+                LootSnapshot.writeInteger(out, entry.getValue());
+            }
+        }
+
+        LootSnapshot.writeEnum(out, burnedMaterial);
+        out.writeDouble(chance);
+        out.writeInt(min);
+        out.writeInt(max);
+
+        out.writeInt(enchantChances == null ? -1 : enchantChances.size());
+        if (enchantChances != null) {
+            for (Map.Entry<String, Double> entry : enchantChances.entrySet()) {
+                LootSnapshot.writeString(out, entry.getKey());
+                LootSnapshot.writeDouble(out, entry.getValue());
+            }
+        }
+
+        LootSnapshot.writeInteger(out, damageMin);
+        LootSnapshot.writeInteger(out, damageMax);
+        out.writeBoolean(allowLootingEnchant);
+        LootSnapshot.writeDouble(out, lootingIncrease);
+
+        out.writeInt(onlyDropFor == null ? -1 : onlyDropFor.size());
+        if (onlyDropFor != null) {
+            for (EntityType type : onlyDropFor) {
+                LootSnapshot.writeEnum(out, type);
+            }
+        }
+
+        LootSnapshot.writeInteger(out, childDropCountMin);
+        LootSnapshot.writeInteger(out, childDropCountMax);
+
+        out.writeInt(childLoot == null ? -1 : childLoot.size());
+        if (childLoot != null) {
+            for (Loot child : childLoot) {
+                out.writeBoolean(child != null);
+
+                if (child != null) {
+                    child.write(out);
+                }
+            }
+        }
+
+        LootSnapshot.writeEnum(out, childLootSelection);
+        LootSnapshot.writeDouble(out, weight);
+        out.writeBoolean(requireCharged);
+        LootSnapshot.writeString(out, chanceFormula);
+        LootSnapshot.writeString(out, minFormula);
+        LootSnapshot.writeString(out, maxFormula);
+    }
+
+    static Loot read(ByteBuffer in) {
+        Loot loot = new Loot();
+
+        loot.command = LootSnapshot.readString(in);
+        loot.xp = in.getInt();
+        loot.material = LootSnapshot.readEnum(in, XMaterial.class);
+        loot.name = LootSnapshot.readString(in);
+
+        int loreSize = in.getInt();
+        if (loreSize != -1) {
+            loot.lore = new ArrayList<>(loreSize);
+
+            for (int i = 0; i < loreSize; i++) {
+                loot.lore.add(LootSnapshot.readString(in));
+            }
+        }
+
+        int enchantsSize = in.getInt();
+        if (enchantsSize != -1) {
+            loot.enchants = new LinkedHashMap<>();
+
+            for (int i = 0; i < enchantsSize; i++) {
+                loot.enchants.put(LootSnapshot.readString(in), LootSnapshot.readInteger(in));
+            }
+        }
+
+        loot.burnedMaterial = LootSnapshot.readEnum(in, XMaterial.class);
+        loot.chance = in.getDouble();
+        loot.min = in.getInt();
+        loot.max = in.getInt();
+
+        int enchantChancesSize = in.getInt();
+        if (enchantChancesSize != -1) {
+            loot.enchantChances = new LinkedHashMap<>();
+
+            for (int i = 0; i < enchantChancesSize; i++) {
+                loot.enchantChances.put(LootSnapshot.readString(in), LootSnapshot.readDouble(in));
+            }
+        }
+
+        loot.damageMin = LootSnapshot.readInteger(in);
+        loot.damageMax = LootSnapshot.readInteger(in);
+        loot.allowLootingEnchant = in.get() != 0;
+        loot.lootingIncrease = LootSnapshot.readDouble(in);
+
+        int onlyDropForSize = in.getInt();
+        if (onlyDropForSize != -1) {
+            loot.onlyDropFor = new ArrayList<>(onlyDropForSize);
+
+            for (int i = 0; i < onlyDropForSize; i++) {
+                loot.onlyDropFor.add(LootSnapshot.readEnum(in, EntityType.class));
+            }
+        }
+
+        loot.childDropCountMin = LootSnapshot.readInteger(in);
+        loot.childDropCountMax = LootSnapshot.readInteger(in);
+
+        int childLootSize = in.getInt();
+        if (childLootSize != -1) {
+            loot.childLoot = new ArrayList<>(childLootSize);
+
+            for (int i = 0; i < childLootSize; i++) {
+                loot.childLoot.add(in.get() == 0 ? null : read(in));
+            }
+        }
+
+        loot.childLootSelection = LootSnapshot.readEnum(in, ChildLootSelection.class);
+        loot.weight = LootSnapshot.readDouble(in);
+        loot.requireCharged = in.get() != 0;
+        loot.chanceFormula = LootSnapshot.readString(in);
+        loot.minFormula = LootSnapshot.readString(in);
+        loot.maxFormula = LootSnapshot.readString(in);
+
+        return loot;
+    }
+
+    private static final class Modified {
+        private final LootPipeline pipeline;
+        private final CompiledLoot compiled;
+
+        private Modified(LootPipeline pipeline, CompiledLoot compiled) {
+            this.pipeline = pipeline;
+            this.compiled = compiled;
+        }
     }
 }
@@ -119,6 +119,31 @@ public final class LootBuilder {
         return this;
     }
 
+    public LootBuilder setChildLootSelection(ChildLootSelection selection) {
+        this.loot.setChildLootSelection(selection);
+        return this;
+    }
+
+    public LootBuilder setWeight(double weight) {
+        this.loot.setWeight(weight);
+        return this;
+    }
+
+    public LootBuilder setChanceFormula(String formula) {
+        this.loot.setChanceFormula(formula);
+        return this;
+    }
+
+    public LootBuilder setMinFormula(String formula) {
+        this.loot.setMinFormula(formula);
+        return this;
+    }
+
+    public LootBuilder setMaxFormula(String formula) {
+        this.loot.setMaxFormula(formula);
+        return this;
+    }
+
     public LootBuilder setRequireCharged(boolean require) {
         this.loot.setRequireCharged(require);
         return this;
@@ -0,0 +1,110 @@
+package com.songoda.core.lootables.loot;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Dispatches loot commands from the console, spread over the following ticks.
+ * At most {@link #getCommandsPerTick()} commands run per tick, so a mass kill can't stall the server.
+ * Must only be used from the main thread.
+ */
+public final class LootCommandQueue {
+    // Default amount of commands dispatched per tick.
+    public static final int DEFAULT_COMMANDS_PER_TICK = 20;
+
+    // The plugin instance for scheduling the dispatching.
+    private static final Plugin plugin = JavaPlugin.getProvidingPlugin(LootCommandQueue.class);
+
+    // Queued commands, in submission order.
+    private static final Deque<QueuedCommand> pending = new ArrayDeque<>();
+
+    private static int commandsPerTick = DEFAULT_COMMANDS_PER_TICK;
+    private static boolean scheduled;
+
+    private LootCommandQueue() {
+    }
+
+    /**
+     * Queues a command dropped several times.
+     * Commands using %amount% are dispatched once with the amount filled in, others are dispatched once per drop.
+     *
+     * @param command The command, with %player% already filled in.
+     * @param amount  How often the command dropped.
+     */
+    public static void submit(String command, int amount) {
+        if (amount <= 0) {
+            return;
+        }
+
+        if (command.contains("%amount%")) {
+            pending.add(new QueuedCommand(command.replace("%amount%", String.valueOf(amount)), 1));
+        } else {
+            pending.add(new QueuedCommand(command, amount));
+        }
+
+        if (!scheduled) {
+            scheduled = true;
+            Bukkit.getScheduler().runTask(plugin, LootCommandQueue::drain);
+        }
+    }
+
+    public static int getCommandsPerTick() {
+        return commandsPerTick;
+    }
+
+    public static void setCommandsPerTick(int commandsPerTick) {
+        LootCommandQueue.commandsPerTick = Math.max(1, commandsPerTick);
+    }
+
+    /**
+     * Gets the amount of commands waiting to be dispatched.
+     *
+     * @return The queued command count.
+     */
+    public static long getPendingCount() {
+        long count = 0;
+
+        for (QueuedCommand command : pending) {
+            count += command.remaining;
+        }
+
+        return count;
+    }
+
+    private static void drain() {
+        scheduled = false;
+
+        int budget = commandsPerTick;
+
+        while (budget > 0) {
+            QueuedCommand command = pending.peek();
+            if (command == null) break;
+
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.command);
+            budget--;
+
+            if (--command.remaining == 0) {
+                pending.poll();
+            }
+        }
+
+        if (!pending.isEmpty() && !scheduled) {
+            scheduled = true;
+            Bukkit.getScheduler().runTask(plugin, LootCommandQueue::drain);
+        }
+    }
+
+    private static final class QueuedCommand {
+        private final String command;
+        private int remaining;
+
+        private QueuedCommand(String command, int remaining) {
+            this.command = command;
+            this.remaining = remaining;
+        }
+    }
+}
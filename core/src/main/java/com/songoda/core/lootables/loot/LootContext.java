@@ -0,0 +1,344 @@
+package com.songoda.core.lootables.loot;
+
+import com.songoda.core.lootables.Modify;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The circumstances loot is rolled in, shared by every kill of a batch.
+ * Contexts can be reused between rolls, {@link #acquire()} hands out one pooled per thread.
+ */
+public final class LootContext implements AutoCloseable {
+    // Context pooled for every thread.
+    private static final ThreadLocal<LootContext> POOL = ThreadLocal.withInitial(() -> new LootContext(true));
+
+    // Is this the pooled context of a thread?
+    private final boolean pooled;
+
+    // Is the pooled context currently handed out?
+    private boolean acquired;
+
+    // The player that killed the entity.
+    private Player killer;
+
+    // Modifier applied to every loot before it's rolled.
+    private Modify modify;
+
+    // Did the entity die on fire?
+    private boolean burning;
+
+    // Was the entity charged?
+    private boolean charged;
+
+    // The item the entity was killed with.
+    private ItemStack murderWeapon;
+
+    // Levels of the murder weapon's enchantments by name, read from the weapon unless set.
+    private Map<String, Integer> weaponEnchantments;
+
+    // Reused for the enchantments read from murder weapons.
+    private final Map<String, Integer> weaponEnchantmentsBuffer = new HashMap<>();
+
+    // The type of the killed entity.
+    private EntityType looter;
+
+    // Chance for failed drops to be rolled again.
+    private int rerollChance;
+
+    // Level of the looting enchantment.
+    private int looting;
+
+    // Amount of entities killed at once.
+    private int stackSize = 1;
+
+    // Reused for passing values to loot formulas.
+    private final double[] formulaVariables = new double[CompiledLoot.FORMULA_VARIABLES.length];
+
+    // Source of randomness for every roll.
+    private LootRandom random = LootRandom.threadLocal();
+
+    // Modifiers applied to every loot, null for none.
+    private LootPipeline pipeline;
+
+    // Meters rolls for the loot statistics, created on first use.
+    private LootMeter meter;
+
+    // Space for shuffling child loot, used like a stack by nested children.
+    private Loot[] scratch = new Loot[16];
+    private int scratchTop;
+
+    public LootContext() {
+        this(false);
+    }
+
+    private LootContext(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Gets the calling thread's pooled context, reset to its defaults.
+     * Give it back with {@link #close()} once rolling is done, ideally through try-with-resources.
+     * If the pooled context is still in use, like when rolling from within a {@link DropSink}, a new one is returned.
+     *
+     * @return A context with default values.
+     */
+    public static LootContext acquire() {
+        LootContext context = POOL.get();
+
+        if (context.acquired) {
+            return new LootContext();
+        }
+
+        context.acquired = true;
+        return context.reset();
+    }
+
+    /**
+     * Gives a context obtained from {@link #acquire()} back to the pool, does nothing for other contexts.
+     */
+    @Override
+    public void close() {
+        if (pooled) {
+            acquired = false;
+            murderWeapon = null;
+            killer = null;
+            modify = null;
+        }
+    }
+
+    /**
+     * Resets every value to its default.
+     *
+     * @return The context, for chaining.
+     */
+    public LootContext reset() {
+        this.killer = null;
+        this.modify = null;
+        this.burning = false;
+        this.charged = false;
+        this.murderWeapon = null;
+        this.weaponEnchantments = null;
+        this.looter = null;
+        this.rerollChance = 0;
+        this.looting = 0;
+        this.stackSize = 1;
+        this.random = LootRandom.threadLocal();
+        this.pipeline = null;
+        return this;
+    }
+
+    public Player getKiller() {
+        return killer;
+    }
+
+    public LootContext setKiller(Player killer) {
+        this.killer = killer;
+        return this;
+    }
+
+    public Modify getModify() {
+        return modify;
+    }
+
+    public LootContext setModify(Modify modify) {
+        this.modify = modify;
+        return this;
+    }
+
+    public boolean isBurning() {
+        return burning;
+    }
+
+    public LootContext setBurning(boolean burning) {
+        this.burning = burning;
+        return this;
+    }
+
+    public boolean isCharged() {
+        return charged;
+    }
+
+    public LootContext setCharged(boolean charged) {
+        this.charged = charged;
+        return this;
+    }
+
+    public ItemStack getMurderWeapon() {
+        return murderWeapon;
+    }
+
+    public LootContext setMurderWeapon(ItemStack murderWeapon) {
+        this.murderWeapon = murderWeapon;
+        this.weaponEnchantments = null;
+        return this;
+    }
+
+    public Map<String, Integer> getWeaponEnchantments() {
+        if (weaponEnchantments == null) {
+            Map<Enchantment, Integer> enchants = murderWeapon == null ? null : murderWeapon.getEnchantments();
+
+            if (enchants == null || enchants.isEmpty()) {
+                weaponEnchantments = Collections.emptyMap();
+            } else {
+                weaponEnchantmentsBuffer.clear();
+
+                for (Map.Entry<Enchantment, Integer> entry : enchants.entrySet()) {
+                    weaponEnchantmentsBuffer.put(entry.getKey().getName(), entry.getValue());
+                }
+
+                weaponEnchantments = weaponEnchantmentsBuffer;
+            }
+        }
+
+        return weaponEnchantments;
+    }
+
+    /**
+     * Sets the murder weapon's enchantments without an actual item, for rolling loot without a server.
+     *
+     * @param weaponEnchantments Levels of the enchantments by name.
+     * @return The context, for chaining.
+     */
+    public LootContext setWeaponEnchantments(Map<String, Integer> weaponEnchantments) {
+        this.weaponEnchantments = weaponEnchantments == null ? null : new HashMap<>(weaponEnchantments);
+        return this;
+    }
+
+    public EntityType getLooter() {
+        return looter;
+    }
+
+    public LootContext setLooter(EntityType looter) {
+        this.looter = looter;
+        return this;
+    }
+
+    public int getRerollChance() {
+        return rerollChance;
+    }
+
+    public LootContext setRerollChance(int rerollChance) {
+        this.rerollChance = rerollChance;
+        return this;
+    }
+
+    public int getLooting() {
+        return looting;
+    }
+
+    public LootContext setLooting(int looting) {
+        this.looting = looting;
+        return this;
+    }
+
+    public int getStackSize() {
+        return stackSize;
+    }
+
+    /**
+     * Sets the amount of entities killed at once, for loot formulas.
+     * Batched rolls use their entity count instead.
+     *
+     * @param stackSize The amount of entities.
+     * @return The context, for chaining.
+     */
+    public LootContext setStackSize(int stackSize) {
+        this.stackSize = Math.max(1, stackSize);
+        return this;
+    }
+
+    /**
+     * Gets the values of the variables of loot formulas, in the order of {@link CompiledLoot#FORMULA_VARIABLES}.
+     */
+    double[] getFormulaVariables() {
+        formulaVariables[0] = looting;
+        formulaVariables[1] = killer == null ? 0 : killer.getLevel();
+        formulaVariables[2] = stackSize;
+        return formulaVariables;
+    }
+
+    public LootRandom getRandom() {
+        return random;
+    }
+
+    public LootContext setRandom(LootRandom random) {
+        this.random = random == null ? LootRandom.threadLocal() : random;
+        return this;
+    }
+
+    public LootPipeline getPipeline() {
+        return pipeline;
+    }
+
+    public LootContext setPipeline(LootPipeline pipeline) {
+        this.pipeline = pipeline;
+        return this;
+    }
+
+    /**
+     * Copies this context, sharing the random source.
+     *
+     * @return The copy.
+     */
+    public LootContext copy() {
+        LootContext copy = new LootContext()
+                .setKiller(killer)
+                .setModify(modify)
+                .setBurning(burning)
+                .setCharged(charged)
+                .setMurderWeapon(murderWeapon)
+                .setLooter(looter)
+                .setRerollChance(rerollChance)
+                .setLooting(looting)
+                .setStackSize(stackSize)
+                .setRandom(random)
+                .setPipeline(pipeline);
+
+        copy.weaponEnchantments = weaponEnchantments == null ? null : new HashMap<>(weaponEnchantments);
+        return copy;
+    }
+
+    /**
+     * Reserves a range of the scratch space.
+     *
+     * @param length The length of the range.
+     * @return The start of the range in {@link #getScratch()}.
+     */
+    int acquireScratch(int length) {
+        int start = scratchTop;
+
+        if (start + length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, start + length));
+        }
+
+        scratchTop = start + length;
+        return start;
+    }
+
+    /**
+     * Frees the range reserved at the given start, and every range reserved after it.
+     */
+    void releaseScratch(int start) {
+        Arrays.fill(scratch, start, scratchTop, null);
+        scratchTop = start;
+    }
+
+    Loot[] getScratch() {
+        return scratch;
+    }
+
+    LootMeter getMeter() {
+        if (meter == null) {
+            meter = new LootMeter();
+        }
+
+        return meter;
+    }
+}
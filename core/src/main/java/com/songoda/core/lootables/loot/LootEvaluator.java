@@ -0,0 +1,265 @@
+package com.songoda.core.lootables.loot;
+
+/**
+ * Rolls compiled loot into a {@link DropSink}.
+ */
+final class LootEvaluator {
+    private LootEvaluator() {
+    }
+
+    static void roll(Lootable lootable, LootContext context, DropSink sink) {
+        for (Loot loot : getPlan(lootable, context)) {
+            roll(loot, context, sink, true);
+        }
+    }
+
+    static void rollBatch(Lootable lootable, int count, LootContext context, DropSink sink) {
+        if (count <= 0) {
+            return;
+        }
+
+        // Formulas see the whole batch as one stack
+        int stackSize = context.getStackSize();
+        context.setStackSize(count);
+
+        try {
+            for (Loot loot : getPlan(lootable, context)) {
+                rollBatch(loot, count, context, sink);
+            }
+        } finally {
+            context.setStackSize(stackSize);
+        }
+    }
+
+    private static Loot[] getPlan(Lootable lootable, LootContext context) {
+        // Modifiers may swap in loot with other conditions, so nothing can be filtered up front
+        if (context.getModify() != null || context.getPipeline() != null && context.getPipeline().hasStaticModifiers()) {
+            return lootable.getLootPlan();
+        }
+
+        return lootable.getLootIndex().select(context.getLooter(), context.isCharged());
+    }
+
+    /**
+     * Rolls a single loot and its children.
+     *
+     * @return True if anything dropped.
+     */
+    static boolean roll(Loot loot, LootContext context, DropSink sink, boolean rollChance) {
+        if (context.getModify() != null) {
+            loot = context.getModify().Modify(loot);
+        }
+
+        if (loot == null) {
+            return false;
+        }
+
+        LootPipeline pipeline = context.getPipeline();
+        CompiledLoot compiled = pipeline == null ? loot.compile() : pipeline.compile(loot);
+
+        // Checked before rolling so loot that can't drop spends no random numbers
+        if (compiled == null || !compiled.canDropFor(context.getLooter(), context.isCharged())) {
+            return false;
+        }
+
+        LootRandom random = context.getRandom();
+        int rerollChance = context.getRerollChance();
+
+        if (rollChance) {
+            double multiplier = pipeline == null ? 1 : pipeline.getChanceMultiplier(compiled, context);
+
+            if (!(compiled.rollChance(context, multiplier) ||
+                    ((random.nextDouble() * 100) - rerollChance < 0 || rerollChance == 100) &&
+                            compiled.rollChance(context, multiplier))) {
+                return false;
+            }
+        }
+
+        boolean dropped = rollChildLoot(compiled, context, sink);
+
+        String command = compiled.getCommand();
+
+        if (!compiled.hasItem() && command == null) {
+            return dropped;
+        }
+
+        int amount = compiled.rollAmount(context);
+        if (pipeline != null) {
+            amount = Math.max(0, amount + pipeline.getAmountBonus(compiled, context));
+        }
+
+        if (amount == 0) {
+            return dropped;
+        }
+
+        int xp = pipeline == null ? compiled.getXp() : pipeline.getXp(compiled, context);
+
+        if (compiled.hasItem()) {
+            sink.item(compiled, context, amount);
+        }
+
+        if (command != null) {
+            sink.command(command, amount);
+        }
+
+        if (xp != 0) {
+            sink.xp(xp, amount);
+        }
+
+        return true;
+    }
+
+    private static void rollBatch(Loot loot, int count, LootContext context, DropSink sink) {
+        // Modifiers may hand out different loot for every entity
+        if (context.getModify() != null) {
+            for (int i = 0; i < count; i++) {
+                roll(loot, context, sink, true);
+            }
+
+            return;
+        }
+
+        LootPipeline pipeline = context.getPipeline();
+        CompiledLoot compiled = pipeline == null ? loot.compile() : pipeline.compile(loot);
+        LootRandom random = context.getRandom();
+
+        if (compiled == null || !compiled.canDropFor(context.getLooter(), context.isCharged())) {
+            return;
+        }
+
+        // Every entity shares the context, so the dynamic modifiers are asked once for the whole batch
+        double multiplier = pipeline == null ? 1 : pipeline.getChanceMultiplier(compiled, context);
+
+        // Chance of the first roll, or of a successful reroll followed by a second roll
+        double chance = compiled.getChanceProbability(context, multiplier);
+        double reroll = context.getRerollChance() == 100 ? 1 : Math.max(0, Math.min(1, context.getRerollChance() / 100.0));
+        int successes = LootSampling.binomial(count, chance + (1 - chance) * reroll * chance, random);
+
+        if (successes == 0) {
+            return;
+        }
+
+        if (compiled.getChildren().length > 0) {
+            for (int i = 0; i < successes; i++) {
+                rollChildLoot(compiled, context, sink);
+            }
+        }
+
+        String command = compiled.getCommand();
+
+        if (!compiled.hasItem() && command == null) {
+            return;
+        }
+
+        int bonus = pipeline == null ? 0 : pipeline.getAmountBonus(compiled, context);
+        long amount;
+
+        // A negative bonus can't go below zero per drop, so the drops can't be summed up then
+        if (compiled.hasVaryingItem() || bonus < 0) {
+            amount = 0;
+
+            for (int i = 0; i < successes; i++) {
+                int dropAmount = Math.max(0, compiled.rollAmount(context) + bonus);
+
+                if (dropAmount > 0) {
+                    if (compiled.hasItem()) {
+                        sink.item(compiled, context, dropAmount);
+                    }
+
+                    amount += dropAmount;
+                }
+            }
+        } else {
+            amount = compiled.rollAmountSum(successes, context) + (long) bonus * successes;
+
+            if (amount > 0 && compiled.hasItem()) {
+                sink.item(compiled, context, amount);
+            }
+        }
+
+        if (amount <= 0) {
+            return;
+        }
+
+        int xp = pipeline == null ? compiled.getXp() : pipeline.getXp(compiled, context);
+
+        if (command != null) {
+            sink.command(command, amount);
+        }
+
+        if (xp != 0) {
+            sink.xp(xp, amount);
+        }
+    }
+
+    private static boolean rollChildLoot(CompiledLoot compiled, LootContext context, DropSink sink) {
+        Loot[] children = compiled.getChildren();
+
+        if (children.length == 0) {
+            return false;
+        }
+
+        LootRandom random = context.getRandom();
+        boolean dropped = false;
+
+        if (compiled.getChildLootSelection() != ChildLootSelection.SHUFFLE) {
+            AliasTable table = compiled.getChildTable();
+
+            if (table == null) {
+                return false;
+            }
+
+            int amt = compiled.rollChildDropCount(random);
+
+            if (compiled.getChildLootSelection() == ChildLootSelection.WEIGHTED) {
+                for (int i = 0; i < amt; i++) {
+                    dropped |= roll(children[table.sample(random)], context, sink, false);
+                }
+            } else {
+                for (int index : table.sampleDistinct(amt, random)) {
+                    dropped |= roll(children[index], context, sink, false);
+                }
+            }
+
+            return dropped;
+        }
+
+        // Shuffled in the context's scratch space instead of a copy, nested children take the space after it
+        int start = context.acquireScratch(children.length);
+        System.arraycopy(children, 0, context.getScratch(), start, children.length);
+        shuffle(context.getScratch(), start, children.length, random);
+
+        int amt = compiled.rollChildDropCount(random);
+        int success = 0;
+
+        try {
+            top:
+            for (int i = 0; i < 100; i++) {
+                for (int j = 0; j < children.length; j++) {
+                    if (amt == success) {
+                        break top;
+                    }
+
+                    // Read again every time, nested rolls may have grown the scratch space
+                    if (roll(context.getScratch()[start + j], context, sink, true)) {
+                        success++;
+                        dropped = true;
+                    }
+                }
+            }
+        } finally {
+            context.releaseScratch(start);
+        }
+
+        return dropped;
+    }
+
+    private static void shuffle(Loot[] loot, int start, int length, LootRandom random) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Loot swap = loot[start + i];
+            loot[start + i] = loot[start + j];
+            loot[start + j] = swap;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.songoda.core.lootables.loot;
+
+import org.bukkit.entity.EntityType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The loot plan of a {@link Lootable} filtered by the conditions known before rolling,
+ * the killed entity's type and whether it was charged.
+ * Loot that can't drop is skipped without spending any random numbers or allocating.
+ * Filtered plans are built per entity type on first use.
+ */
+final class LootIndex {
+    private static final int UNCHARGED = 0;
+    private static final int CHARGED = 1;
+
+    // The unfiltered plan.
+    private final Loot[] plan;
+
+    // Filtered plans by entity type, uncharged and charged.
+    private final Map<EntityType, Loot[][]> byLooter = new ConcurrentHashMap<>();
+
+    // Filtered plans if the entity type is unknown.
+    private volatile Loot[][] withoutLooter;
+
+    LootIndex(Loot[] plan) {
+        this.plan = plan;
+    }
+
+    /**
+     * Gets the loot that can drop in the given circumstances.
+     *
+     * @param looter    The type of the killed entity, may be null.
+     * @param isCharged Was the entity charged?
+     * @return The loot that can drop, in plan order.
+     */
+    Loot[] select(EntityType looter, boolean isCharged) {
+        Loot[][] plans;
+
+        if (looter == null) {
+            plans = withoutLooter;
+
+            if (plans == null) {
+                plans = filter(null);
+                withoutLooter = plans;
+            }
+        } else {
+            plans = byLooter.computeIfAbsent(looter, this::filter);
+        }
+
+        return plans[isCharged ? CHARGED : UNCHARGED];
+    }
+
+    private Loot[][] filter(EntityType looter) {
+        List<Loot> uncharged = new ArrayList<>(plan.length);
+        List<Loot> charged = new ArrayList<>(plan.length);
+
+        for (Loot loot : plan) {
+            if (loot == null) continue;
+
+            CompiledLoot compiled = loot.compile();
+
+            if (compiled.canDropFor(looter, false)) {
+                uncharged.add(loot);
+            }
+
+            if (compiled.canDropFor(looter, true)) {
+                charged.add(loot);
+            }
+        }
+
+        Loot[][] plans = new Loot[2][];
+        plans[UNCHARGED] = uncharged.toArray(new Loot[0]);
+        plans[CHARGED] = charged.size() == uncharged.size() ? plans[UNCHARGED] : charged.toArray(new Loot[0]);
+        return plans;
+    }
+}
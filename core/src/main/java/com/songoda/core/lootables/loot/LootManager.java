@@ -1,204 +1,609 @@
 package com.songoda.core.lootables.loot;
 
-import com.cryptomorin.xseries.XMaterial;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.stream.JsonReader;
-import com.songoda.core.gui.builder.item.ItemBuilder;
 import com.songoda.core.lootables.Lootables;
 import com.songoda.core.lootables.Modify;
 import org.bukkit.entity.EntityType;
 import org.bukkit.inventory.ItemStack;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class LootManager {
-    private final Map<String, Lootable> registeredLootables = new HashMap<>();
+    // Upper bound of threads parsing files during a load.
+    private static final int MAX_LOAD_THREADS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    // Writes the files of asynchronous saves, one at a time.
+    private static final ExecutorService SAVE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Lootables Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Shared by every load and save, Gson instances are thread safe.
+    private static final Gson GSON = new Gson();
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    // Immutable snapshot of the registry, writers publish a modified copy so readers on any thread never lock.
+    private volatile Map<String, Lootable> registeredLootables = Collections.emptyMap();
+
+    // Parse time of every file during the last load.
+    private volatile Map<String, Long> loadTimings = Collections.emptyMap();
 
     private final Lootables lootables;
 
+    // Reloads changed files while watching is enabled.
+    private volatile LootWatcher watcher;
+
+    // Serialized lootables waiting to be written by an asynchronous save, by file.
+    private final Map<File, PendingWrite> pendingWrites = new LinkedHashMap<>();
+
+    // The running asynchronous save, guarded by pendingWrites.
+    private CompletableFuture<Void> pendingSave;
+
+    // Held while files are written, so two saves never write the same temporary file
+    // and a write serialized earlier can't land after a newer one.
+    private final Object writeLock = new Object();
+
     public LootManager(Lootables lootables) {
         this.lootables = lootables;
     }
 
-    public Lootable addLootable(Lootable lootable) {
-        return registeredLootables.put(lootable.getKey(), lootable);
+    public synchronized Lootable addLootable(Lootable lootable) {
+        Map<String, Lootable> replaced = new HashMap<>(registeredLootables);
+        Lootable previous = replaced.put(lootable.getKey(), lootable);
+
+        publish(replaced);
+        return previous;
     }
 
     public void removeLootable(String key) {
-        registeredLootables.remove(key);
+        synchronized (this) {
+            if (registeredLootables.containsKey(key)) {
+                Map<String, Lootable> replaced = new HashMap<>(registeredLootables);
+                replaced.remove(key);
 
-        File file = new File(lootables.getLootablesDir(), key.toLowerCase() + ".json");
-        file.delete();
-    }
+                publish(replaced);
+            }
+        }
 
-    public List<Drop> runLoot(Modify modify, boolean burning, boolean isCharged, ItemStack murderWeapon, EntityType looter, Loot loot, int rerollChance, int looting) {
-        List<Drop> toDrop = new ArrayList<>();
+        File file = getFile(key);
 
-        if (modify != null) {
-            loot = modify.Modify(loot);
-        }
+        // A queued or running write would bring the file back
+        synchronized (writeLock) {
+            synchronized (pendingWrites) {
+                pendingWrites.remove(file);
+            }
 
-        if (loot == null) {
-            return toDrop;
+            file.delete();
         }
+    }
 
-        if (loot.runChance(looting, murderWeapon) ||
-                ((Math.random() * 100) - rerollChance < 0 || rerollChance == 100) &&
-                        loot.runChance(looting, murderWeapon)) {
-
-            if (loot.getOnlyDropFor().size() != 0
-                    && loot.getOnlyDropFor().stream().noneMatch(type -> looter != null && type == looter)
-                    || !isCharged && loot.isRequireCharged())
-                return toDrop;
+    public List<Drop> runLoot(Modify modify, boolean burning, boolean isCharged, ItemStack murderWeapon, EntityType looter, Lootable lootable, int rerollChance, int looting) {
+        return runLoot(lootable, new LootContext()
+                .setModify(modify)
+                .setBurning(burning)
+                .setCharged(isCharged)
+                .setMurderWeapon(murderWeapon)
+                .setLooter(looter)
+                .setRerollChance(rerollChance)
+                .setLooting(looting));
+    }
 
-            if (loot.getChildLoot().size() > 0) {
-                List<Loot> childLoot = loot.getChildLoot();
-                Collections.shuffle(childLoot);
+    public List<Drop> runLoot(Modify modify, boolean burning, boolean isCharged, ItemStack murderWeapon, EntityType looter, Loot loot, int rerollChance, int looting) {
+        DropListSink sink = new DropListSink();
+        LootEvaluator.roll(loot, new LootContext()
+                .setModify(modify)
+                .setBurning(burning)
+                .setCharged(isCharged)
+                .setMurderWeapon(murderWeapon)
+                .setLooter(looter)
+                .setRerollChance(rerollChance)
+                .setLooting(looting), sink, true);
+        return sink.getDrops();
+    }
 
-                int amt = loot.getChildDropCount();
-                int success = 0;
+    public List<Drop> runLoot(Lootable lootable, LootContext context) {
+        DropListSink sink = new DropListSink();
+        roll(lootable, 1, context, sink, false);
+        return sink.getDrops();
+    }
 
-                top:
-                for (int i = 0; i < 100; i++) {
-                    for (Loot value : childLoot) {
-                        if (value == null) {
-                            continue;
-                        }
+    /**
+     * Rolls loot straight into a sink, without collecting {@link Drop}s.
+     * Together with a context from {@link LootContext#acquire()} rolling allocates nothing but the dropped items.
+     *
+     * @param lootable The lootable to roll.
+     * @param context  The context the entity was killed in.
+     * @param sink     Receives everything that dropped.
+     */
+    public void runLoot(Lootable lootable, LootContext context, DropSink sink) {
+        roll(lootable, 1, context, sink, false);
+    }
 
-                        if (amt == success) {
-                            break top;
-                        }
+    /**
+     * Rolls the loot of several entities killed at once, like a stack of entities.
+     * Independent drops are sampled from their aggregated distributions, so rolling
+     * simple loot costs the same no matter how many entities were killed.
+     * Child loot, items with random enchantments or damage and loot altered by a
+     * {@link Modify} are still rolled for every entity that got the drop.
+     *
+     * @param lootable The lootable to roll.
+     * @param count    The amount of killed entities.
+     * @param context  The context every entity was killed in.
+     * @return The merged drops of every entity.
+     */
+    public List<Drop> runLootBatch(Lootable lootable, int count, LootContext context) {
+        DropListSink sink = new DropListSink();
+        roll(lootable, count, context, sink, true);
+        return sink.getDrops();
+    }
 
-                        List<Drop> drops = runLoot(modify, burning, isCharged, murderWeapon, looter, value, rerollChance, looting);
+    /**
+     * Rolls the loot of several entities killed at once straight into a sink.
+     *
+     * @param lootable The lootable to roll.
+     * @param count    The amount of killed entities.
+     * @param context  The context every entity was killed in.
+     * @param sink     Receives everything that dropped.
+     * @see #runLootBatch(Lootable, int, LootContext)
+     */
+    public void runLootBatch(Lootable lootable, int count, LootContext context, DropSink sink) {
+        roll(lootable, count, context, sink, true);
+    }
 
-                        if (!drops.isEmpty()) {
-                            success++;
-                        }
+    private void roll(Lootable lootable, int count, LootContext context, DropSink sink, boolean batch) {
+        LootMeter meter = context.getMeter();
+        LootRandom random = context.getRandom();
 
-                        toDrop.addAll(drops);
-                    }
-                }
+        // Rolls started from within a metered roll's sink are part of the outer one
+        if (!LootStatistics.isEnabled() || !meter.begin(random, sink)) {
+            if (batch) {
+                LootEvaluator.rollBatch(lootable, count, context, sink);
+            } else {
+                LootEvaluator.roll(lootable, context, sink);
             }
 
-            XMaterial material = loot.getMaterial();
-            String command = loot.getCommand();
-            int xp = loot.getXp();
+            return;
+        }
+
+        context.setRandom(meter);
+        long start = System.nanoTime();
 
-            if (material == null && command == null) {
-                return toDrop;
+        try {
+            if (batch) {
+                LootEvaluator.rollBatch(lootable, count, context, meter);
+            } else {
+                LootEvaluator.roll(lootable, context, meter);
             }
+        } finally {
+            long nanos = System.nanoTime() - start;
+
+            context.setRandom(random);
+            lootable.getStatistics().record(Math.max(0, count), nanos, meter.getDraws(), meter.getItems(), meter.getCommands());
+            meter.end();
+        }
+    }
+
+    /**
+     * Gets the statistics of every registered lootable.
+     *
+     * @return The statistics by lootable key.
+     */
+    public Map<String, LootStatistics> getStatistics() {
+        Map<String, LootStatistics> statistics = new HashMap<>();
+
+        for (Lootable lootable : registeredLootables.values()) {
+            statistics.put(lootable.getKey(), lootable.getStatistics());
+        }
 
-            int amount = loot.getAmountToDrop(looting);
-            if (amount == 0) {
-                return toDrop;
+        return statistics;
+    }
+
+    public void loadLootables() {
+        File dir = new File(lootables.getLootablesDir());
+        File[] directoryListing = dir.listFiles((file, name) -> name.endsWith(".json"));
+
+        if (directoryListing == null || directoryListing.length == 0) {
+            synchronized (this) {
+                this.registeredLootables = Collections.emptyMap();
             }
 
-            if (material != null) {
-                ItemStack item = loot.getBurnedMaterial() != null &&
-                        burning ? loot.getBurnedMaterial().parseItem() : material.parseItem();
+            this.loadTimings = Collections.emptyMap();
+            return;
+        }
 
-                ItemBuilder itemBuilder = ItemBuilder.from(item);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(directoryListing.length, MAX_LOAD_THREADS), runnable -> {
+            Thread thread = new Thread(runnable, "Lootables Loader");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-                if (loot.getName() != null) {
-                    itemBuilder = itemBuilder.name(loot.getName());
-                }
+        Path snapshotFile = dir.toPath().resolve(LootSnapshot.FILE_NAME);
+        LootSnapshot snapshot = LootSnapshot.open(snapshotFile);
 
-                if (loot.getLore() != null) {
-                    itemBuilder = itemBuilder.lore(loot.getLore());
-                }
+        try {
+            List<Future<LoadedFile>> results = new ArrayList<>(directoryListing.length);
+            long[] timings = new long[directoryListing.length];
 
-                item = itemBuilder.build();
+            for (int i = 0; i < directoryListing.length; i++) {
+                Path path = directoryListing[i].toPath();
+                int index = i;
 
-                if (loot.getEnchants(item) != null) {
-                    item = loot.getEnchants(item);
-                }
+                results.add(executor.submit(() -> {
+                    long start = System.nanoTime();
 
-                if (loot.getDamageMax() != 0 && loot.getDamageMin() != 0) {
-                    short max = item.getType().getMaxDurability();
-                    short min = (short) (max * (10 / 100.0f));
+                    try {
+                        return loadFile(path, snapshot);
+                    } finally {
+                        timings[index] = System.nanoTime() - start;
+                    }
+                }));
+            }
+
+            Map<String, Lootable> loaded = new HashMap<>();
+            Map<String, Long> loadTimings = new LinkedHashMap<>();
+
+            // Lootables to store in a new snapshot, by file name
+            Map<String, Lootable> parsed = new HashMap<>();
+            Map<String, byte[]> hashes = new HashMap<>();
+            boolean snapshotStale = false;
+
+            for (int i = 0; i < directoryListing.length; i++) {
+                try {
+                    LoadedFile file = results.get(i).get();
+                    Lootable lootable = file.lootable;
 
-                    item.setDurability((short) (new Random().nextInt(max - min + 1) + min));
+                    if (lootable == null) {
+                        continue;
+                    }
+
+                    parsed.put(directoryListing[i].getName(), lootable);
+                    hashes.put(directoryListing[i].getName(), file.hash);
+                    snapshotStale |= !file.fromSnapshot;
+
+                    if (lootable.getLootPlan().length != 0) {
+                        loaded.put(lootable.getKey(), lootable);
+                    }
+                } catch (ExecutionException ex) {
+                    ex.getCause().printStackTrace();
+                } finally {
+                    loadTimings.put(directoryListing[i].getName(), timings[i]);
                 }
+            }
 
-                toDrop.add(new Drop(item));
+            // Published at once so readers never see a partially loaded registry
+            synchronized (this) {
+                publish(loaded);
             }
 
-            if (command != null) {
-                for (int i = 0; i < amount; i++) {
-                    toDrop.add(new Drop(command));
+            this.loadTimings = Collections.unmodifiableMap(loadTimings);
+
+            if (snapshotStale || snapshot == null || snapshot.size() != parsed.size()) {
+                try {
+                    LootSnapshot.write(snapshotFile, parsed, hashes);
+                } catch (IOException ex) {
+                    ex.printStackTrace();
                 }
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LoadedFile loadFile(Path path, LootSnapshot snapshot) throws IOException {
+        byte[] content = readFile(path);
+        byte[] hash = LootSnapshot.hash(content);
+
+        if (snapshot != null) {
+            try {
+                Lootable lootable = snapshot.read(path.getFileName().toString(), hash);
 
-            if (xp != 0) {
-                for (int i = 0; i < amount; i++) {
-                    toDrop.add(new Drop(xp));
+                if (lootable != null) {
+                    return new LoadedFile(lootable, hash, true);
                 }
+            } catch (RuntimeException ex) {
+                // A corrupt entry only costs parsing the JSON
             }
         }
 
-        return toDrop;
+        return new LoadedFile(parseLootable(content), hash, false);
     }
 
-    public void loadLootables() {
-        registeredLootables.clear();
+    /**
+     * Starts reloading lootables whose file changed on disk.
+     * Only the changed file is parsed and compiled, off the main thread, and then swapped in.
+     * A file that fails to parse leaves its last good version registered.
+     *
+     * @throws IOException If the lootables directory can't be watched.
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watcher != null) {
+            return;
+        }
 
         File dir = new File(lootables.getLootablesDir());
-        File[] directoryListing = dir.listFiles();
+        dir.mkdirs();
 
-        if (directoryListing != null) {
-            for (File file : directoryListing) {
-                if (!file.getName().endsWith(".json")) {
-                    continue;
-                }
+        watcher = new LootWatcher(this, dir.toPath());
+    }
 
-                try {
-                    Gson gson = new Gson();
-                    JsonReader reader = new JsonReader(new FileReader(file.getPath()));
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
 
-                    Lootable lootable = gson.fromJson(reader, Lootable.class);
+    public boolean isWatching() {
+        return watcher != null;
+    }
 
-                    if (lootable.getRegisteredLoot().size() != 0) {
-                        addLootable(lootable);
-                    }
+    /**
+     * Swaps in a reloaded lootable, replacing the one previously loaded from the same file.
+     *
+     * @param fileKey  The name of the file without its extension.
+     * @param lootable The reloaded lootable.
+     */
+    synchronized void replaceLootable(String fileKey, Lootable lootable) {
+        Map<String, Lootable> replaced = new HashMap<>(registeredLootables);
+        replaced.keySet().removeIf(key -> key.equalsIgnoreCase(fileKey));
+
+        if (lootable.getLootPlan().length != 0) {
+            replaced.put(lootable.getKey(), lootable);
+        }
 
-                    reader.close();
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                }
+        publish(replaced);
+    }
+
+    /**
+     * Removes the lootable loaded from a deleted file.
+     *
+     * @param fileKey The name of the file without its extension.
+     */
+    synchronized void unregisterFile(String fileKey) {
+        Map<String, Lootable> replaced = new HashMap<>(registeredLootables);
+
+        if (replaced.keySet().removeIf(key -> key.equalsIgnoreCase(fileKey))) {
+            publish(replaced);
+        }
+    }
+
+    private void publish(Map<String, Lootable> registry) {
+        this.registeredLootables = registry.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(registry);
+    }
+
+    static Lootable parseLootable(byte[] content) throws IOException {
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, Lootable.class);
+        }
+    }
+
+    /**
+     * Reads a whole file through a channel into a buffer sized to the file, used by loading and reloading alike.
+     * The content is kept in memory so it can be hashed for the snapshot before it's parsed.
+     *
+     * @param path The file.
+     * @return The content of the file.
+     */
+    static byte[] readFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+
+            // The file may have shrunk since its size was read, keep only what was actually read
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) == -1) break;
             }
+
+            return buffer.position() == buffer.capacity() ? buffer.array() : Arrays.copyOf(buffer.array(), buffer.position());
         }
     }
 
+    /**
+     * Gets how long parsing every file took during the last {@link #loadLootables()}.
+     *
+     * @return The parse time in nanoseconds by file name.
+     */
+    public Map<String, Long> getLoadTimings() {
+        return loadTimings;
+    }
+
+    /**
+     * Saves the registered lootables on the calling thread.
+     * Only lootables changed since they were loaded or saved are written.
+     * Writes still queued by {@link #saveLootablesAsync()} are taken over, so once this returns
+     * every change is on disk, even if the asynchronous save didn't get to it yet.
+     *
+     * @param defaults Only write lootables without a file, and clear the registry afterwards.
+     */
     public void saveLootables(boolean defaults) {
         File dir = new File(lootables.getLootablesDir());
         dir.mkdir();
 
-        // Save to file
-        for (Lootable lootable : registeredLootables.values()) {
-            try {
-                File file = new File(lootables.getLootablesDir(), lootable.getKey().toLowerCase() + ".json");
+        synchronized (writeLock) {
+            Map<File, PendingWrite> writes;
 
-                if (file.exists() && defaults) {
-                    continue;
-                }
+            synchronized (pendingWrites) {
+                writes = new LinkedHashMap<>(pendingWrites);
+                pendingWrites.clear();
+
+                for (Lootable lootable : registeredLootables.values()) {
+                    File file = getFile(lootable.getKey());
+
+                    if (defaults ? file.exists() : !lootable.isDirty()) {
+                        continue;
+                    }
 
-                try (Writer writer = new FileWriter(file.getPath())) {
-                    Gson gson = new GsonBuilder().setPrettyPrinting().create();
-                    gson.toJson(lootable, writer);
+                    // Replaces a queued write of the same file, which is older
+                    writes.put(file, new PendingWrite(lootable, serialize(lootable)));
                 }
-            } catch (IOException ex) {
-                ex.printStackTrace();
+            }
+
+            // Save to file
+            for (Map.Entry<File, PendingWrite> entry : writes.entrySet()) {
+                writeLootable(entry.getKey(), entry.getValue().lootable, entry.getValue().json);
             }
         }
 
         if (defaults) {
-            registeredLootables.clear();
+            synchronized (this) {
+                this.registeredLootables = Collections.emptyMap();
+            }
+        }
+    }
+
+    /**
+     * Saves the changed lootables off the calling thread.
+     * The lootables are serialized right away, only writing the files happens in the background.
+     * Saves requested while another one is still running are merged into it.
+     *
+     * @return Completes once every changed lootable is written.
+     */
+    public CompletableFuture<Void> saveLootablesAsync() {
+        // Serialized while holding the queue, so a synchronous save either sees a lootable dirty or takes its queued write
+        synchronized (pendingWrites) {
+            for (Lootable lootable : registeredLootables.values()) {
+                if (lootable.isDirty()) {
+                    pendingWrites.put(getFile(lootable.getKey()), new PendingWrite(lootable, serialize(lootable)));
+                }
+            }
+
+            if (pendingSave == null) {
+                if (pendingWrites.isEmpty()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+
+                pendingSave = CompletableFuture.runAsync(this::drainWrites, SAVE_EXECUTOR);
+            }
+
+            return pendingSave;
+        }
+    }
+
+    private void drainWrites() {
+        boolean drained = false;
+
+        try {
+            new File(lootables.getLootablesDir()).mkdir();
+
+            while (true) {
+                synchronized (writeLock) {
+                    Map<File, PendingWrite> writes;
+
+                    synchronized (pendingWrites) {
+                        // Cleared together with the check, so a save queued right after starts a new drain
+                        if (pendingWrites.isEmpty()) {
+                            pendingSave = null;
+                            drained = true;
+                            return;
+                        }
+
+                        writes = new LinkedHashMap<>(pendingWrites);
+                        pendingWrites.clear();
+                    }
+
+                    for (Map.Entry<File, PendingWrite> entry : writes.entrySet()) {
+                        writeLootable(entry.getKey(), entry.getValue().lootable, entry.getValue().json);
+                    }
+                }
+            }
+        } finally {
+            // A failed drain mustn't leave every later save waiting on it
+            if (!drained) {
+                synchronized (pendingWrites) {
+                    pendingSave = null;
+                }
+            }
+        }
+    }
+
+    private String serialize(Lootable lootable) {
+        synchronized (lootable) {
+            // Links the loot to the lootable so later edits mark it dirty again
+            lootable.getLootPlan();
+            lootable.clearDirty();
+
+            return PRETTY_GSON.toJson(lootable);
+        }
+    }
+
+    private void writeLootable(File file, Lootable lootable, String json) {
+        Path path = file.toPath();
+        Path temp = path.resolveSibling(file.getName() + ".tmp");
+
+        byte[] content = json.getBytes(StandardCharsets.UTF_8);
+
+        // Marked before the file changes, so the watcher can't pick the change up first
+        LootWatcher watcher = this.watcher;
+        if (watcher != null) {
+            watcher.markWritten(path, content);
+        }
+
+        try {
+            // Written next to the file and moved over it, so a crash never leaves a truncated file
+            Files.write(temp, content);
+
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            lootable.markDirty();
+            ex.printStackTrace();
         }
     }
 
+    private File getFile(String key) {
+        return new File(lootables.getLootablesDir(), key.toLowerCase() + ".json");
+    }
+
+    /**
+     * Gets a snapshot of the registered lootables.
+     * The snapshot is immutable and never changes, later registry changes publish a new one.
+     * Safe to call from any thread, it neither locks nor allocates.
+     *
+     * @return The registered lootables by key.
+     */
     public Map<String, Lootable> getRegisteredLootables() {
-        return Collections.unmodifiableMap(registeredLootables);
+        return registeredLootables;
+    }
+
+    private static final class LoadedFile {
+        private final Lootable lootable;
+        private final byte[] hash;
+        private final boolean fromSnapshot;
+
+        private LoadedFile(Lootable lootable, byte[] hash, boolean fromSnapshot) {
+            this.lootable = lootable;
+            this.hash = hash;
+            this.fromSnapshot = fromSnapshot;
+        }
+    }
+
+    private static final class PendingWrite {
+        private final Lootable lootable;
+        private final String json;
+
+        private PendingWrite(Lootable lootable, String json) {
+            this.lootable = lootable;
+            this.json = json;
+        }
     }
 }
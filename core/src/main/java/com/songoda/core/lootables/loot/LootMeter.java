@@ -0,0 +1,106 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.Random;
+
+/**
+ * Counts what a single roll draws and drops, by standing in for the context's random source and the sink.
+ * Reused by its {@link LootContext}, so metering allocates nothing.
+ */
+final class LootMeter implements LootRandom, DropSink {
+    private LootRandom random;
+    private DropSink sink;
+
+    private boolean active;
+    private long draws;
+    private long items;
+    private long commands;
+
+    /**
+     * Starts metering a roll.
+     *
+     * @return False if the meter is already metering an enclosing roll.
+     */
+    boolean begin(LootRandom random, DropSink sink) {
+        if (active) {
+            return false;
+        }
+
+        this.active = true;
+        this.random = random;
+        this.sink = sink;
+        this.draws = 0;
+        this.items = 0;
+        this.commands = 0;
+        return true;
+    }
+
+    void end() {
+        this.active = false;
+        this.random = null;
+        this.sink = null;
+    }
+
+    long getDraws() {
+        return draws;
+    }
+
+    long getItems() {
+        return items;
+    }
+
+    long getCommands() {
+        return commands;
+    }
+
+    @Override
+    public double nextDouble() {
+        draws++;
+        return random.nextDouble();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        draws++;
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        draws++;
+        return random.nextLong();
+    }
+
+    @Override
+    public double nextGaussian() {
+        draws++;
+        return random.nextGaussian();
+    }
+
+    @Override
+    public LootRandom split() {
+        return random.split();
+    }
+
+    @Override
+    public Random asRandom() {
+        // Draws through the Random, like random enchantments, aren't counted
+        return random.asRandom();
+    }
+
+    @Override
+    public void item(CompiledLoot loot, LootContext context, long amount) {
+        items += amount;
+        sink.item(loot, context, amount);
+    }
+
+    @Override
+    public void command(String command, long amount) {
+        commands += amount;
+        sink.command(command, amount);
+    }
+
+    @Override
+    public void xp(int xp, long amount) {
+        sink.xp(xp, amount);
+    }
+}
@@ -0,0 +1,127 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Staged modification of loot, set on a {@link LootContext}.
+ * Static modifiers are applied once when loot is compiled and cached with it, dynamic modifiers only
+ * apply their deltas to the cached plan on every roll. Replaces copying loot per death in a {@link com.songoda.core.lootables.Modify}.
+ */
+public final class LootPipeline {
+    private final StaticLootModifier[] staticModifiers;
+
+    // Dynamic modifiers by the field they touch.
+    private final DynamicLootModifier[] chanceModifiers;
+    private final DynamicLootModifier[] amountModifiers;
+    private final DynamicLootModifier[] xpModifiers;
+
+    private LootPipeline(Builder builder) {
+        this.staticModifiers = builder.staticModifiers.toArray(new StaticLootModifier[0]);
+
+        List<DynamicLootModifier> chanceModifiers = new ArrayList<>();
+        List<DynamicLootModifier> amountModifiers = new ArrayList<>();
+        List<DynamicLootModifier> xpModifiers = new ArrayList<>();
+
+        for (DynamicLootModifier modifier : builder.dynamicModifiers) {
+            if (modifier.getFields().contains(DynamicLootModifier.Field.CHANCE)) {
+                chanceModifiers.add(modifier);
+            }
+
+            if (modifier.getFields().contains(DynamicLootModifier.Field.AMOUNT)) {
+                amountModifiers.add(modifier);
+            }
+
+            if (modifier.getFields().contains(DynamicLootModifier.Field.XP)) {
+                xpModifiers.add(modifier);
+            }
+        }
+
+        this.chanceModifiers = chanceModifiers.toArray(new DynamicLootModifier[0]);
+        this.amountModifiers = amountModifiers.toArray(new DynamicLootModifier[0]);
+        this.xpModifiers = xpModifiers.toArray(new DynamicLootModifier[0]);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean hasStaticModifiers() {
+        return staticModifiers.length != 0;
+    }
+
+    /**
+     * Compiles loot with the static modifiers applied, cached on the loot until it's edited.
+     *
+     * @param loot The loot.
+     * @return The modified plan or null if a modifier removed the loot.
+     */
+    CompiledLoot compile(Loot loot) {
+        return staticModifiers.length == 0 ? loot.compile() : loot.compile(this);
+    }
+
+    Loot applyStatic(Loot copy) {
+        for (StaticLootModifier modifier : staticModifiers) {
+            if (copy == null) break;
+            copy = modifier.modify(copy);
+        }
+
+        return copy;
+    }
+
+    double getChanceMultiplier(CompiledLoot loot, LootContext context) {
+        double multiplier = 1;
+
+        for (DynamicLootModifier modifier : chanceModifiers) {
+            multiplier *= modifier.getChanceMultiplier(loot, context);
+        }
+
+        return multiplier;
+    }
+
+    int getAmountBonus(CompiledLoot loot, LootContext context) {
+        int bonus = 0;
+
+        for (DynamicLootModifier modifier : amountModifiers) {
+            bonus += modifier.getAmountBonus(loot, context);
+        }
+
+        return bonus;
+    }
+
+    int getXp(CompiledLoot loot, LootContext context) {
+        if (xpModifiers.length == 0) {
+            return loot.getXp();
+        }
+
+        double multiplier = 1;
+
+        for (DynamicLootModifier modifier : xpModifiers) {
+            multiplier *= modifier.getXpMultiplier(loot, context);
+        }
+
+        return (int) Math.round(loot.getXp() * multiplier);
+    }
+
+    public static final class Builder {
+        private final List<StaticLootModifier> staticModifiers = new ArrayList<>();
+        private final List<DynamicLootModifier> dynamicModifiers = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder addStaticModifier(StaticLootModifier modifier) {
+            this.staticModifiers.add(modifier);
+            return this;
+        }
+
+        public Builder addDynamicModifier(DynamicLootModifier modifier) {
+            this.dynamicModifiers.add(modifier);
+            return this;
+        }
+
+        public LootPipeline build() {
+            return new LootPipeline(this);
+        }
+    }
+}
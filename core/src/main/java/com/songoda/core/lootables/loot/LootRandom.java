@@ -0,0 +1,64 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.Random;
+
+/**
+ * Source of randomness for rolling loot.
+ * {@link #threadLocal()} is used by default, {@link #seeded(long)} gives reproducible results for tests and replays.
+ */
+public interface LootRandom {
+    /**
+     * Gets the shared source backed by {@link java.util.concurrent.ThreadLocalRandom}, safe to use from any thread.
+     *
+     * @return The thread local source.
+     */
+    static LootRandom threadLocal() {
+        return ThreadLocalLootRandom.INSTANCE;
+    }
+
+    /**
+     * Creates a deterministic source backed by a {@link java.util.SplittableRandom}.
+     * It must not be shared between threads, use {@link #split()} to hand out independent streams instead.
+     *
+     * @param seed The seed of the stream.
+     * @return A new seeded source.
+     */
+    static LootRandom seeded(long seed) {
+        return new SeededLootRandom(seed);
+    }
+
+    /**
+     * @return A uniformly distributed value between 0 (inclusive) and 1 (exclusive).
+     */
+    double nextDouble();
+
+    /**
+     * @param bound The exclusive upper bound, must be positive.
+     * @return A uniformly distributed value between 0 (inclusive) and the bound (exclusive).
+     */
+    int nextInt(int bound);
+
+    /**
+     * @return A uniformly distributed long value.
+     */
+    long nextLong();
+
+    /**
+     * @return A normally distributed value with a mean of 0 and a standard deviation of 1.
+     */
+    double nextGaussian();
+
+    /**
+     * Creates an independent source for another thread, deterministic if this source is.
+     *
+     * @return The split source.
+     */
+    LootRandom split();
+
+    /**
+     * Gets a {@link Random} drawing from this source, for APIs that require one.
+     *
+     * @return The random.
+     */
+    Random asRandom();
+}
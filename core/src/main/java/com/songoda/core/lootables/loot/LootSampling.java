@@ -0,0 +1,110 @@
+package com.songoda.core.lootables.loot;
+
+/**
+ * Samples the aggregated outcome of many independent loot rolls at once.
+ */
+final class LootSampling {
+    // Up to this many trials are simply rolled one by one.
+    private static final int EXACT_TRIALS = 32;
+
+    // Below this many expected successes the geometric method is used over the normal approximation.
+    private static final double GEOMETRIC_MEAN_LIMIT = 10;
+
+    private LootSampling() {
+    }
+
+    /**
+     * Samples how many of the given trials succeed.
+     *
+     * @param trials      The amount of trials.
+     * @param probability The success probability of a single trial.
+     * @param random      The source of randomness.
+     * @return The amount of successful trials.
+     */
+    static int binomial(int trials, double probability, LootRandom random) {
+        if (trials <= 0 || probability <= 0) {
+            return 0;
+        }
+
+        if (probability >= 1) {
+            return trials;
+        }
+
+        if (trials <= EXACT_TRIALS) {
+            int successes = 0;
+
+            for (int i = 0; i < trials; i++) {
+                if (random.nextDouble() < probability) {
+                    successes++;
+                }
+            }
+
+            return successes;
+        }
+
+        // Sampling the rarer outcome keeps both methods accurate
+        boolean flip = probability > 0.5;
+        double p = flip ? 1 - probability : probability;
+        int successes;
+
+        if (trials * p < GEOMETRIC_MEAN_LIMIT) {
+            // Skips straight from one success to the next with geometrically distributed gaps
+            double logFailure = Math.log1p(-p);
+            long position = 0;
+            successes = 0;
+
+            while (true) {
+                position += (long) (Math.log(1 - random.nextDouble()) / logFailure) + 1;
+
+                if (position > trials) {
+                    break;
+                }
+
+                successes++;
+            }
+        } else {
+            double mean = trials * p;
+            double deviation = Math.sqrt(mean * (1 - p));
+
+            successes = (int) Math.max(0, Math.min(trials, Math.round(mean + deviation * random.nextGaussian())));
+        }
+
+        return flip ? trials - successes : successes;
+    }
+
+    /**
+     * Samples the sum of independent uniformly distributed amounts.
+     *
+     * @param count  The amount of rolls.
+     * @param min    The inclusive minimum of a roll.
+     * @param max    The inclusive maximum of a roll.
+     * @param random The source of randomness.
+     * @return The sum of every roll.
+     */
+    static long uniformSum(int count, int min, int max, LootRandom random) {
+        if (count <= 0) {
+            return 0;
+        }
+
+        if (min == max) {
+            return (long) count * min;
+        }
+
+        if (count <= EXACT_TRIALS) {
+            long sum = 0;
+
+            for (int i = 0; i < count; i++) {
+                sum += random.nextInt(max - min + 1) + min;
+            }
+
+            return sum;
+        }
+
+        double span = max - min + 1.0;
+        double mean = count * (min + (double) max) / 2;
+        double deviation = Math.sqrt(count * (span * span - 1) / 12);
+
+        long sum = Math.round(mean + deviation * random.nextGaussian());
+        return Math.max((long) count * min, Math.min((long) count * max, sum));
+    }
+}
@@ -0,0 +1,86 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte-Carlo simulation of a {@link Lootable}, to see what a loot table drops on average before players do.
+ * Kills are rolled in parallel on a fork/join pool, each task with its own stream split from the seed,
+ * so a seed always gives the same report. No items are created, simulations run without a server.
+ */
+public final class LootSimulator {
+    // Up to this many kills are rolled by a single task.
+    private static final long LEAF_KILLS = 8192;
+
+    private final ForkJoinPool pool;
+
+    public LootSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public LootSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Simulates kills of an entity using the given lootable.
+     *
+     * @param lootable The lootable to roll.
+     * @param kills    The amount of kills to simulate.
+     * @param context  The kill circumstances, like the looting level and weapon enchantments.
+     *                 Its random source is replaced and its {@link com.songoda.core.lootables.Modify} must be thread safe.
+     * @param seed     The seed of the simulation.
+     * @return The report.
+     */
+    public SimulationReport simulate(Lootable lootable, long kills, LootContext context, long seed) {
+        if (kills <= 0) {
+            throw new IllegalArgumentException("The amount of kills must be positive");
+        }
+
+        long start = System.nanoTime();
+        SimulationSink sink = pool.invoke(new SimulationTask(lootable, context, kills, LootRandom.seeded(seed)));
+
+        return sink.toReport(kills, seed, System.nanoTime() - start);
+    }
+
+    private static final class SimulationTask extends RecursiveTask<SimulationSink> {
+        private final Lootable lootable;
+        private final LootContext context;
+        private final long kills;
+        private final LootRandom random;
+
+        private SimulationTask(Lootable lootable, LootContext context, long kills, LootRandom random) {
+            this.lootable = lootable;
+            this.context = context;
+            this.kills = kills;
+            this.random = random;
+        }
+
+        @Override
+        protected SimulationSink compute() {
+            if (kills <= LEAF_KILLS) {
+                LootContext context = this.context.copy().setRandom(random);
+                SimulationSink sink = new SimulationSink();
+
+                for (long i = 0; i < kills; i++) {
+                    LootEvaluator.roll(lootable, context, sink);
+                    sink.endKill();
+                }
+
+                return sink;
+            }
+
+            // Split before this task's stream is used so the outcome doesn't depend on scheduling
+            long half = kills / 2;
+            SimulationTask left = new SimulationTask(lootable, context, half, random.split());
+            SimulationTask right = new SimulationTask(lootable, context, kills - half, random);
+
+            left.fork();
+            SimulationSink sink = right.compute();
+            SimulationSink leftSink = left.join();
+
+            leftSink.merge(sink);
+            return leftSink;
+        }
+    }
+}
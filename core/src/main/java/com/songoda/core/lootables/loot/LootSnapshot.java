@@ -0,0 +1,236 @@
+package com.songoda.core.lootables.loot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary snapshot of the loaded lootables, stored next to their JSON files.
+ * Every lootable is stored with the hash of the file it was parsed from, so it's only
+ * used while that file is unchanged. Reading it skips the reflection Gson needs for deep loot trees.
+ */
+final class LootSnapshot {
+    static final String FILE_NAME = ".lootables.snapshot";
+
+    private static final int MAGIC = 0x4C4F4F54;
+
+    // Bump whenever the encoding of Loot or Lootable changes, older snapshots are ignored then.
+    private static final int VERSION = 2;
+
+    private static final int HASH_LENGTH = 32;
+
+    // Content of the snapshot file.
+    private final ByteBuffer buffer;
+
+    // Stored lootables by file name.
+    private final Map<String, Entry> entries;
+
+    private LootSnapshot(ByteBuffer buffer, Map<String, Entry> entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads a snapshot file.
+     * The file is read into memory instead of being mapped, a live mapping would keep it from being replaced on Windows.
+     *
+     * @param file The snapshot file.
+     * @return The snapshot or null if it's missing, outdated or corrupt.
+     */
+    static LootSnapshot open(Path file) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(LootManager.readFile(file));
+
+            if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+
+            int count = buffer.getInt();
+            Map<String, Entry> entries = new HashMap<>(count * 2);
+
+            for (int i = 0; i < count; i++) {
+                String fileName = readString(buffer);
+
+                byte[] hash = new byte[HASH_LENGTH];
+                buffer.get(hash);
+
+                entries.put(fileName, new Entry(hash, buffer.getInt(), buffer.getInt()));
+            }
+
+            return new LootSnapshot(buffer, entries);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException | RuntimeException ex) {
+            // The lootables are parsed from their files instead
+            ex.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Reads a stored lootable, safe to call from several threads at once.
+     *
+     * @param fileName The name of the file the lootable was parsed from.
+     * @param hash     The {@link #hash(byte[])} of the file's current content.
+     * @return The lootable or null if the file changed since the snapshot was written.
+     */
+    Lootable read(String fileName, byte[] hash) {
+        Entry entry = entries.get(fileName);
+
+        if (entry == null || !Arrays.equals(entry.hash, hash)) {
+            return null;
+        }
+
+        ByteBuffer in = buffer.duplicate();
+        in.limit(entry.offset + entry.length);
+        in.position(entry.offset);
+
+        return Lootable.read(in);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes a new snapshot, replacing the old one at once.
+     *
+     * @param file      The snapshot file.
+     * @param lootables The lootables by the name of the file they were parsed from.
+     * @param hashes    The hashes of those files by name.
+     */
+    static void write(Path file, Map<String, Lootable> lootables, Map<String, byte[]> hashes) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream bodyOut = new DataOutputStream(body);
+
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+
+        Map<String, int[]> ranges = new HashMap<>();
+        for (Map.Entry<String, Lootable> entry : lootables.entrySet()) {
+            int start = bodyOut.size();
+            entry.getValue().write(bodyOut);
+            ranges.put(entry.getKey(), new int[]{start, bodyOut.size() - start});
+        }
+
+        // Every index entry has the same size apart from the name, so the body's offset is known up front
+        int headerSize = 12;
+        for (String fileName : ranges.keySet()) {
+            headerSize += 4 + fileName.getBytes(StandardCharsets.UTF_8).length + HASH_LENGTH + 8;
+        }
+
+        for (Map.Entry<String, int[]> entry : ranges.entrySet()) {
+            writeString(indexOut, entry.getKey());
+            indexOut.write(hashes.get(entry.getKey()));
+            indexOut.writeInt(headerSize + entry.getValue()[0]);
+            indexOut.writeInt(entry.getValue()[1]);
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(ranges.size());
+
+            index.writeTo(out);
+            body.writeTo(out);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+
+        if (length == -1) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    static Integer readInteger(ByteBuffer in) {
+        return in.get() == 0 ? null : in.getInt();
+    }
+
+    static void writeDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    static Double readDouble(ByteBuffer in) {
+        return in.get() == 0 ? null : in.getDouble();
+    }
+
+    static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        // Stored by name, ordinals change between versions of XMaterial and Bukkit
+        writeString(out, value == null ? null : value.name());
+    }
+
+    static <E extends Enum<E>> E readEnum(ByteBuffer in, Class<E> type) {
+        String name = readString(in);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    private static final class Entry {
+        private final byte[] hash;
+        private final int offset;
+        private final int length;
+
+        private Entry(byte[] hash, int offset, int length) {
+            this.hash = hash;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost of rolling a {@link Lootable} through its {@link LootManager}, for profiling and metrics exporters.
+ * Counters are striped, so recording from many threads at once stays cheap.
+ * Simulations aren't recorded.
+ */
+public final class LootStatistics {
+    // Should rolls be recorded?
+    private static volatile boolean enabled = true;
+
+    // Calls of runLoot and runLootBatch.
+    private final LongAdder invocations = new LongAdder();
+
+    // Entities rolled for, batches count every entity.
+    private final LongAdder kills = new LongAdder();
+
+    // Time spent rolling, including the sink.
+    private final LongAdder nanos = new LongAdder();
+
+    // Random numbers drawn by the engine.
+    private final LongAdder randomDraws = new LongAdder();
+
+    // Amount of dropped items.
+    private final LongAdder items = new LongAdder();
+
+    // Amount of dropped commands.
+    private final LongAdder commands = new LongAdder();
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        LootStatistics.enabled = enabled;
+    }
+
+    void record(int kills, long nanos, long randomDraws, long items, long commands) {
+        this.invocations.increment();
+        this.kills.add(kills);
+        this.nanos.add(nanos);
+        this.randomDraws.add(randomDraws);
+        this.items.add(items);
+        this.commands.add(commands);
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getKills() {
+        return kills.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    public long getRandomDraws() {
+        return randomDraws.sum();
+    }
+
+    public long getItems() {
+        return items.sum();
+    }
+
+    public long getCommands() {
+        return commands.sum();
+    }
+
+    /**
+     * Gets the average time of a call.
+     *
+     * @return The time in nanoseconds, 0 if nothing was recorded.
+     */
+    public double getAverageNanos() {
+        long invocations = getInvocations();
+        return invocations == 0 ? 0 : getNanos() / (double) invocations;
+    }
+
+    public void reset() {
+        invocations.reset();
+        kills.reset();
+        nanos.reset();
+        randomDraws.reset();
+        items.reset();
+        commands.reset();
+    }
+}
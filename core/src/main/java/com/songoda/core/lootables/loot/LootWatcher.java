@@ -0,0 +1,160 @@
+package com.songoda.core.lootables.loot;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the lootables directory and reloads single lootables once their file changed.
+ * Changes are debounced, so an editor saving several times in a row causes one reload,
+ * and a file that fails to parse leaves the last good version registered.
+ */
+final class LootWatcher {
+    // Time without further changes before a file is reloaded.
+    private static final long DEBOUNCE_MILLIS = 250;
+
+    private final LootManager lootManager;
+    private final Path dir;
+    private final WatchService watchService;
+
+    // Reloads a file once it stopped changing, also parses and compiles off the watching thread.
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Lootables Reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Pending reloads by file.
+    private final Map<Path, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+
+    // Content hashes of files written by the loot manager itself, which don't need a reload.
+    private final Map<Path, byte[]> ownWrites = new ConcurrentHashMap<>();
+
+    private final Thread thread;
+
+    LootWatcher(LootManager lootManager, Path dir) throws IOException {
+        this.lootManager = lootManager;
+        this.dir = dir;
+        this.watchService = FileSystems.getDefault().newWatchService();
+
+        dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+
+        this.thread = new Thread(this::watch, "Lootables Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    void close() {
+        try {
+            watchService.close();
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+
+        scheduler.shutdownNow();
+        pending.clear();
+    }
+
+    /**
+     * Remembers a file was just written by the loot manager, so the resulting change isn't reloaded.
+     * The content is compared rather than the modification time, which is too coarse on some file systems
+     * to tell an edit made right after a save apart from the save itself.
+     *
+     * @param file    The written file.
+     * @param content The written content.
+     */
+    void markWritten(Path file, byte[] content) {
+        ownWrites.put(file.toAbsolutePath(), LootSnapshot.hash(content));
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scheduler.execute(lootManager::loadLootables);
+                        continue;
+                    }
+
+                    Path file = dir.resolve((Path) event.context()).toAbsolutePath();
+
+                    if (file.getFileName().toString().endsWith(".json")) {
+                        schedule(file);
+                    }
+                }
+
+                if (!key.reset()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignore) {
+        }
+    }
+
+    private void schedule(Path file) {
+        ScheduledFuture<?> previous = pending.put(file,
+                scheduler.schedule(() -> reload(file), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS));
+
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private void reload(Path file) {
+        pending.remove(file);
+
+        String fileName = file.getFileName().toString();
+        String fileKey = fileName.substring(0, fileName.length() - ".json".length());
+
+        if (!Files.exists(file)) {
+            ownWrites.remove(file);
+            lootManager.unregisterFile(fileKey);
+            return;
+        }
+
+        try {
+            byte[] content = LootManager.readFile(file);
+
+            byte[] written = ownWrites.get(file);
+            if (written != null && Arrays.equals(written, LootSnapshot.hash(content))) {
+                return;
+            }
+
+            Lootable lootable = LootManager.parseLootable(content);
+
+            if (lootable == null || lootable.getKey() == null) {
+                return;
+            }
+
+            // Compiled here so the first roll after the swap doesn't pay for it
+            for (Loot loot : lootable.getLootPlan()) {
+                loot.compile();
+            }
+
+            lootManager.replaceLootable(fileKey, lootable);
+        } catch (NoSuchFileException ignore) {
+        } catch (Exception ex) {
+            // The last good version stays registered
+            new IOException("Failed to reload lootable " + fileName, ex).printStackTrace();
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.songoda.core.lootables.loot;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class Lootable {
@@ -15,29 +19,174 @@ public class Lootable {
     @SerializedName("Loot")
     private final List<Loot> registeredLoot = new ArrayList<>();
 
+    // Registered loot as rolled by the loot manager, rebuilt after registration changes.
+    private transient volatile Loot[] lootPlan;
+
+    // Read-only view of the loot plan handed out to callers.
+    private transient volatile List<Loot> lootView;
+
+    // The loot plan filtered by looter and charge, rebuilt after any loot changed.
+    private transient volatile LootIndex lootIndex;
+
+    // Changed since it was last loaded or saved?
+    private transient volatile boolean dirty;
+
+    // Cost of rolling this lootable, created on first use.
+    private transient volatile LootStatistics statistics;
+
     public Lootable(String key) {
         this.type = key;
+        this.dirty = true;
     }
 
     public Lootable(String key, Loot... loots) {
         this.type = key;
+        this.dirty = true;
 
         registeredLoot.addAll(Arrays.asList(loots));
     }
 
+    /**
+     * Gets the registered loot.
+     * The returned list is a read-only snapshot, use {@link #registerLoot(Loot...)} and
+     * {@link #removeLoot(Loot)} to change it.
+     *
+     * @return The registered loot.
+     */
     public List<Loot> getRegisteredLoot() {
-        return new ArrayList<>(registeredLoot);
+        List<Loot> lootView = this.lootView;
+
+        if (lootView == null) {
+            synchronized (this) {
+                lootView = Collections.unmodifiableList(Arrays.asList(getLootPlan()));
+                this.lootView = lootView;
+            }
+        }
+
+        return lootView;
     }
 
-    public void registerLoot(Loot... loots) {
+    public synchronized void registerLoot(Loot... loots) {
         registeredLoot.addAll(Arrays.asList(loots));
+        invalidate();
+        markDirty();
+    }
+
+    Loot[] getLootPlan() {
+        Loot[] lootPlan = this.lootPlan;
+
+        if (lootPlan == null) {
+            synchronized (this) {
+                lootPlan = registeredLoot.toArray(new Loot[0]);
+                this.lootPlan = lootPlan;
+
+                for (Loot loot : lootPlan) {
+                    if (loot != null) {
+                        loot.setOwner(this);
+                    }
+                }
+            }
+        }
+
+        return lootPlan;
+    }
+
+    LootIndex getLootIndex() {
+        LootIndex lootIndex = this.lootIndex;
+
+        if (lootIndex == null) {
+            lootIndex = new LootIndex(getLootPlan());
+            this.lootIndex = lootIndex;
+        }
+
+        return lootIndex;
+    }
+
+    private void invalidate() {
+        this.lootPlan = null;
+        this.lootView = null;
+        this.lootIndex = null;
+    }
+
+    /**
+     * Called whenever any of the registered loot or their children got edited.
+     */
+    void lootChanged() {
+        this.lootIndex = null;
+        this.dirty = true;
+    }
+
+    public LootStatistics getStatistics() {
+        LootStatistics statistics = this.statistics;
+
+        if (statistics == null) {
+            synchronized (this) {
+                statistics = this.statistics;
+
+                if (statistics == null) {
+                    statistics = new LootStatistics();
+                    this.statistics = statistics;
+                }
+            }
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Checks whether this lootable or any of its loot changed since it was last loaded or saved.
+     *
+     * @return True if the lootable has to be saved.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    void markDirty() {
+        this.dirty = true;
+    }
+
+    void clearDirty() {
+        this.dirty = false;
     }
 
     public String getKey() {
         return type;
     }
 
-    public void removeLoot(Loot loot) {
-        this.registeredLoot.remove(loot);
+    public synchronized void removeLoot(Loot loot) {
+        if (this.registeredLoot.remove(loot) && loot != null) {
+            loot.setOwner(null);
+        }
+
+        invalidate();
+        markDirty();
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        Loot[] lootPlan = getLootPlan();
+
+        LootSnapshot.writeString(out, type);
+        out.writeInt(lootPlan.length);
+
+        for (Loot loot : lootPlan) {
+            out.writeBoolean(loot != null);
+
+            if (loot != null) {
+                loot.write(out);
+            }
+        }
+    }
+
+    static Lootable read(ByteBuffer in) {
+        Lootable lootable = new Lootable(LootSnapshot.readString(in));
+        int size = in.getInt();
+
+        for (int i = 0; i < size; i++) {
+            lootable.registeredLoot.add(in.get() == 0 ? null : Loot.read(in));
+        }
+
+        lootable.dirty = false;
+        return lootable;
     }
 }
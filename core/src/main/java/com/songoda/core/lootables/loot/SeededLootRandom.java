@@ -0,0 +1,114 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+final class SeededLootRandom implements LootRandom {
+    private final SplittableRandom random;
+
+    // View of this source as a java.util.Random, created on first use.
+    private Random view;
+
+    // Second value of the last generated gaussian pair.
+    private double nextGaussian;
+    private boolean hasNextGaussian;
+
+    SeededLootRandom(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SeededLootRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    @Override
+    public double nextGaussian() {
+        if (hasNextGaussian) {
+            hasNextGaussian = false;
+            return nextGaussian;
+        }
+
+        // Marsaglia polar method, as used by java.util.Random
+        double v1, v2, s;
+        do {
+            v1 = 2 * random.nextDouble() - 1;
+            v2 = 2 * random.nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+
+        double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextGaussian = v2 * multiplier;
+        hasNextGaussian = true;
+
+        return v1 * multiplier;
+    }
+
+    @Override
+    public LootRandom split() {
+        return new SeededLootRandom(random.split());
+    }
+
+    @Override
+    public Random asRandom() {
+        Random view = this.view;
+
+        if (view == null) {
+            view = new View(this);
+            this.view = view;
+        }
+
+        return view;
+    }
+
+    /**
+     * Draws from the seeded stream itself, so the results stay reproducible without reseeding a new Random per call.
+     */
+    private static final class View extends Random {
+        private final SeededLootRandom source;
+
+        private View(SeededLootRandom source) {
+            super(0);
+            this.source = source;
+        }
+
+        @Override
+        protected int next(int bits) {
+            return (int) (source.random.nextLong() >>> (64 - bits));
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return source.nextInt(bound);
+        }
+
+        @Override
+        public long nextLong() {
+            return source.nextLong();
+        }
+
+        @Override
+        public double nextDouble() {
+            return source.nextDouble();
+        }
+
+        @Override
+        public double nextGaussian() {
+            return source.nextGaussian();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of a {@link LootSimulator} run.
+ */
+public final class SimulationReport {
+    // Simulated kills.
+    private final long kills;
+
+    // Seed the simulation was run with.
+    private final long seed;
+
+    // Time the simulation took.
+    private final long durationNanos;
+
+    // Statistics per dropped material.
+    private final Map<String, ItemStatistics> items;
+
+    // Average xp dropped per kill.
+    private final double xpPerKill;
+
+    // Average times a command ran per kill.
+    private final Map<String, Double> commandsPerKill;
+
+    SimulationReport(long kills, long seed, long durationNanos, Map<String, ItemStatistics> items, double xpPerKill, Map<String, Double> commandsPerKill) {
+        this.kills = kills;
+        this.seed = seed;
+        this.durationNanos = durationNanos;
+        this.items = Collections.unmodifiableMap(items);
+        this.xpPerKill = xpPerKill;
+        this.commandsPerKill = Collections.unmodifiableMap(commandsPerKill);
+    }
+
+    public long getKills() {
+        return kills;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public Map<String, ItemStatistics> getItems() {
+        return items;
+    }
+
+    public double getXpPerKill() {
+        return xpPerKill;
+    }
+
+    public Map<String, Double> getCommandsPerKill() {
+        return commandsPerKill;
+    }
+
+    public static final class ItemStatistics {
+        // The dropped material.
+        private final String material;
+
+        // Simulated kills.
+        private final long kills;
+
+        // Kills that dropped this material.
+        private final long dropKills;
+
+        // Total amount dropped.
+        private final long totalAmount;
+
+        // Kills per dropped amount, the last bucket holds every larger amount.
+        private final long[] histogram;
+
+        ItemStatistics(String material, long kills, long dropKills, long totalAmount, long[] histogram) {
+            this.material = material;
+            this.kills = kills;
+            this.dropKills = dropKills;
+            this.totalAmount = totalAmount;
+            this.histogram = histogram;
+        }
+
+        public String getMaterial() {
+            return material;
+        }
+
+        public long getDropKills() {
+            return dropKills;
+        }
+
+        public long getTotalAmount() {
+            return totalAmount;
+        }
+
+        /**
+         * @return The share of kills that dropped this material, between 0 and 1.
+         */
+        public double getDropRate() {
+            return kills == 0 ? 0 : (double) dropKills / kills;
+        }
+
+        public double getMeanPerKill() {
+            return kills == 0 ? 0 : (double) totalAmount / kills;
+        }
+
+        public double getMeanPerDrop() {
+            return dropKills == 0 ? 0 : (double) totalAmount / dropKills;
+        }
+
+        /**
+         * Gets a percentile of the amount dropped by kills that dropped this material.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The amount.
+         */
+        public int getPercentile(double percentile) {
+            if (dropKills == 0) {
+                return 0;
+            }
+
+            long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * dropKills);
+            long seen = 0;
+
+            for (int amount = 0; amount < histogram.length; amount++) {
+                seen += histogram[amount];
+
+                if (seen >= Math.max(1, rank)) {
+                    return amount;
+                }
+            }
+
+            return histogram.length - 1;
+        }
+
+        public int getMaxAmount() {
+            for (int amount = histogram.length - 1; amount > 0; amount--) {
+                if (histogram[amount] != 0) {
+                    return amount;
+                }
+            }
+
+            return 0;
+        }
+    }
+}
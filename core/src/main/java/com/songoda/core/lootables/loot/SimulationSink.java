@@ -0,0 +1,114 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tallies simulated loot per kill instead of creating drops.
+ */
+final class SimulationSink implements DropSink {
+    // Larger amounts per kill share the last histogram bucket.
+    private static final int HISTOGRAM_LIMIT = 4096;
+
+    private final Map<String, Tally> items = new HashMap<>();
+    private final Map<String, long[]> commands = new HashMap<>();
+    private long xp;
+
+    // Items dropped by the current kill.
+    private final List<Tally> touched = new ArrayList<>();
+
+    @Override
+    public void item(CompiledLoot loot, LootContext context, long amount) {
+        Tally tally = items.computeIfAbsent(loot.getItemMaterial(context.isBurning()).name(), key -> new Tally());
+
+        if (tally.pending == 0) {
+            touched.add(tally);
+        }
+
+        tally.pending += amount;
+    }
+
+    @Override
+    public void command(String command, long amount) {
+        commands.computeIfAbsent(command, key -> new long[1])[0] += amount;
+    }
+
+    @Override
+    public void xp(int xp, long amount) {
+        this.xp += xp * amount;
+    }
+
+    void endKill() {
+        for (Tally tally : touched) {
+            tally.record();
+        }
+
+        touched.clear();
+    }
+
+    void merge(SimulationSink other) {
+        for (Map.Entry<String, Tally> entry : other.items.entrySet()) {
+            items.computeIfAbsent(entry.getKey(), key -> new Tally()).merge(entry.getValue());
+        }
+
+        for (Map.Entry<String, long[]> entry : other.commands.entrySet()) {
+            commands.computeIfAbsent(entry.getKey(), key -> new long[1])[0] += entry.getValue()[0];
+        }
+
+        xp += other.xp;
+    }
+
+    SimulationReport toReport(long kills, long seed, long durationNanos) {
+        Map<String, SimulationReport.ItemStatistics> items = new TreeMap<>();
+        for (Map.Entry<String, Tally> entry : this.items.entrySet()) {
+            Tally tally = entry.getValue();
+            items.put(entry.getKey(), new SimulationReport.ItemStatistics(entry.getKey(), kills, tally.dropKills, tally.total,
+                    Arrays.copyOf(tally.histogram, tally.histogram.length)));
+        }
+
+        Map<String, Double> commands = new TreeMap<>();
+        for (Map.Entry<String, long[]> entry : this.commands.entrySet()) {
+            commands.put(entry.getKey(), (double) entry.getValue()[0] / kills);
+        }
+
+        return new SimulationReport(kills, seed, durationNanos, items, (double) xp / kills, commands);
+    }
+
+    private static final class Tally {
+        private long dropKills;
+        private long total;
+        private long pending;
+        private long[] histogram = new long[16];
+
+        private void record() {
+            int bucket = (int) Math.min(pending, HISTOGRAM_LIMIT);
+            grow(bucket + 1);
+
+            histogram[bucket]++;
+            dropKills++;
+            total += pending;
+            pending = 0;
+        }
+
+        private void merge(Tally other) {
+            grow(other.histogram.length);
+
+            for (int i = 0; i < other.histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+
+            dropKills += other.dropKills;
+            total += other.total;
+        }
+
+        private void grow(int length) {
+            if (histogram.length < length) {
+                histogram = Arrays.copyOf(histogram, Math.max(length, histogram.length * 2));
+            }
+        }
+    }
+}
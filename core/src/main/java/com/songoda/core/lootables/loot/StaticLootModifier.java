@@ -0,0 +1,17 @@
+package com.songoda.core.lootables.loot;
+
+/**
+ * Modifies loot once, when it's compiled for a {@link LootPipeline}.
+ * The result is cached until the loot is edited, so a static modifier has to give the same
+ * result for the same loot every time it's called.
+ */
+@FunctionalInterface
+public interface StaticLootModifier {
+    /**
+     * Modifies a copy of the loot, children are modified separately when they're rolled.
+     *
+     * @param loot A deep copy of the loot, safe to edit.
+     * @return The loot to roll instead, usually the given copy, or null if it should never drop.
+     */
+    Loot modify(Loot loot);
+}
@@ -0,0 +1,41 @@
+package com.songoda.core.lootables.loot;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class ThreadLocalLootRandom implements LootRandom {
+    static final ThreadLocalLootRandom INSTANCE = new ThreadLocalLootRandom();
+
+    private ThreadLocalLootRandom() {
+    }
+
+    @Override
+    public double nextDouble() {
+        return ThreadLocalRandom.current().nextDouble();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    @Override
+    public double nextGaussian() {
+        return ThreadLocalRandom.current().nextGaussian();
+    }
+
+    @Override
+    public LootRandom split() {
+        return this;
+    }
+
+    @Override
+    public Random asRandom() {
+        return ThreadLocalRandom.current();
+    }
+}
@@ -1,10 +1,19 @@
 package com.songoda.core.math;
 
+import java.util.Arrays;
+import java.util.List;
+
 public class Eval {
+    private static final String[] NO_VARIABLES = new String[0];
+    private static final double[] NO_VALUES = new double[0];
+
     private int pos = -1, ch;
     private final String toParse;
     private final String warningMessage;
 
+    // Names of the variables the expression can use, in the order their values are passed.
+    private List<String> variables = Arrays.asList(NO_VARIABLES);
+
     public Eval(String toParse, String warningMessage) {
         this.toParse = toParse;
         this.warningMessage = warningMessage + " ";
@@ -28,59 +37,77 @@ public class Eval {
     }
 
     public double parse() {
+        return compile().evaluate();
+    }
+
+    /**
+     * Parses the expression once into a tree that can be evaluated repeatedly with different variable values.
+     * Parts of the expression without variables are calculated right away.
+     *
+     * @param variables Names of the variables the expression can use, made of lower case letters and underscores.
+     * @return The compiled expression, taking the values of the variables in the given order.
+     */
+    public Expression compile(String... variables) {
+        this.variables = Arrays.asList(variables);
+        this.pos = -1;
         nextChar();
 
-        double x = parseExpression();
+        Node x = parseExpression();
         if (pos < toParse.length()) {
             throw new RuntimeException(warningMessage + "Unexpected: '" + (char) ch + "' at position " + pos + " in '" + this.toParse + "'");
         }
 
-        return x;
+        return x::evaluate;
     }
 
     // Grammar:
     // expression = term | expression `+` term | expression `-` term
     // term = factor | term `*` factor | term `/` factor
     // factor = `+` factor | `-` factor | `(` expression `)`
-    //        | number | functionName factor | factor `^` factor
+    //        | number | variable | functionName factor | factor `^` factor
 
-    private double parseExpression() {
-        double x = parseTerm();
+    private Node parseExpression() {
+        Node x = parseTerm();
 
         for (; ; ) {
             if (eat('+')) { // addition
-                x += parseTerm();
+                Node a = x, b = parseTerm();
+                x = fold(a, b, values -> a.evaluate(values) + b.evaluate(values));
             } else if (eat('-')) { // subtraction
-                x -= parseTerm();
+                Node a = x, b = parseTerm();
+                x = fold(a, b, values -> a.evaluate(values) - b.evaluate(values));
             } else {
                 return x;
             }
         }
     }
 
-    private double parseTerm() {
-        double x = parseFactor();
+    private Node parseTerm() {
+        Node x = parseFactor();
 
         for (; ; ) {
             if (eat('*')) { // multiplication
-                x *= parseFactor();
+                Node a = x, b = parseFactor();
+                x = fold(a, b, values -> a.evaluate(values) * b.evaluate(values));
             } else if (eat('/')) { // division
-                x /= parseFactor();
+                Node a = x, b = parseFactor();
+                x = fold(a, b, values -> a.evaluate(values) / b.evaluate(values));
             } else {
                 return x;
             }
         }
     }
 
-    private double parseFactor() {
+    private Node parseFactor() {
         if (eat('+')) {
             return parseFactor(); // unary plus
         }
         if (eat('-')) {
-            return -parseFactor(); // unary minus
+            Node a = parseFactor();
+            return fold(a, a, values -> -a.evaluate(values)); // unary minus
         }
 
-        double x;
+        Node x;
         int startPos = this.pos;
         if (eat('(')) { // parentheses
             x = parseExpression();
@@ -90,39 +117,88 @@ public class Eval {
                 nextChar();
             }
 
-            x = Double.parseDouble(toParse.substring(startPos, this.pos));
-        } else if (ch >= 'a' && ch <= 'z') { // functions
-            while (ch >= 'a' && ch <= 'z') {
+            x = new Constant(Double.parseDouble(toParse.substring(startPos, this.pos)));
+        } else if ((ch >= 'a' && ch <= 'z') || ch == '_') { // variables and functions
+            while ((ch >= 'a' && ch <= 'z') || ch == '_') {
                 nextChar();
             }
 
-            String func = toParse.substring(startPos, this.pos);
-            x = parseFactor();
-
-            switch (func) {
-                case "sqrt":
-                    x = Math.sqrt(x);
-                    break;
-                case "sin":
-                    x = Math.sin(Math.toRadians(x));
-                    break;
-                case "cos":
-                    x = Math.cos(Math.toRadians(x));
-                    break;
-                case "tan":
-                    x = Math.tan(Math.toRadians(x));
-                    break;
-                default:
-                    throw new RuntimeException(warningMessage + "Unknown function: " + func);
+            String name = toParse.substring(startPos, this.pos);
+            int variable = variables.indexOf(name);
+
+            if (variable != -1) {
+                x = values -> values[variable];
+            } else {
+                Node a = parseFactor();
+
+                switch (name) {
+                    case "sqrt":
+                        x = fold(a, a, values -> Math.sqrt(a.evaluate(values)));
+                        break;
+                    case "sin":
+                        x = fold(a, a, values -> Math.sin(Math.toRadians(a.evaluate(values))));
+                        break;
+                    case "cos":
+                        x = fold(a, a, values -> Math.cos(Math.toRadians(a.evaluate(values))));
+                        break;
+                    case "tan":
+                        x = fold(a, a, values -> Math.tan(Math.toRadians(a.evaluate(values))));
+                        break;
+                    default:
+                        throw new RuntimeException(warningMessage + "Unknown function: " + name);
+                }
             }
         } else {
             throw new RuntimeException(warningMessage + "Unexpected: " + (char) ch);
         }
 
         if (eat('^')) {
-            x = Math.pow(x, parseFactor()); // exponentiation
+            Node a = x, b = parseFactor();
+            x = fold(a, b, values -> Math.pow(a.evaluate(values), b.evaluate(values))); // exponentiation
         }
 
         return x;
     }
+
+    /**
+     * Calculates an operation right away if none of its operands use variables.
+     */
+    private static Node fold(Node a, Node b, Node operation) {
+        if (a instanceof Constant && b instanceof Constant) {
+            return new Constant(operation.evaluate(NO_VALUES));
+        }
+
+        return operation;
+    }
+
+    /**
+     * An expression compiled by {@link #compile(String...)}.
+     */
+    @FunctionalInterface
+    public interface Expression {
+        /**
+         * Evaluates the expression, passing an array doesn't allocate.
+         *
+         * @param values The values of the variables, in the order they were compiled with.
+         * @return The result.
+         */
+        double evaluate(double... values);
+    }
+
+    private interface Node {
+        double evaluate(double[] values);
+    }
+
+    private static final class Constant implements Node {
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double evaluate(double[] values) {
+            return value;
+        }
+    }
 }
@@ -28,6 +28,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -99,13 +100,17 @@ public class ItemUtils {
     }
 
     public static ItemStack applyRandomEnchants(ItemStack item, int level) {
+        return applyRandomEnchants(item, level, ThreadLocalRandom.current());
+    }
+
+    public static ItemStack applyRandomEnchants(ItemStack item, int level, Random random) {
         try {
             Object nmsItemStack = methodAsNMSCopy.invoke(null, item);
 
             if (ServerVersion.isServerVersion(ServerVersion.V1_8)) {
-                nmsItemStack = methodA.invoke(null, new Random(), nmsItemStack, level);
+                nmsItemStack = methodA.invoke(null, random, nmsItemStack, level);
             } else {
-                nmsItemStack = methodA.invoke(null, new Random(), nmsItemStack, level, false);
+                nmsItemStack = methodA.invoke(null, random, nmsItemStack, level, false);
             }
 
             item = (ItemStack) methodAsBukkitCopy.invoke(null, nmsItemStack);